@@ -0,0 +1,87 @@
+public class BacktestResult {
+    private long ticks;
+    private long firstTimestamp;
+    private long lastTimestamp;
+    private int trades;
+    private double initialValue;
+    private double finalValue;
+    private double maxDrawdown; // fraction of the running peak
+    private long elapsedNanos;
+
+    public BacktestResult(long ticks, long firstTimestamp, long lastTimestamp, int trades,
+                          double initialValue, double finalValue, double maxDrawdown, long elapsedNanos) {
+        this.ticks = ticks;
+        this.firstTimestamp = firstTimestamp;
+        this.lastTimestamp = lastTimestamp;
+        this.trades = trades;
+        this.initialValue = initialValue;
+        this.finalValue = finalValue;
+        this.maxDrawdown = maxDrawdown;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // Getters
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public int getTrades() {
+        return trades;
+    }
+
+    public double getInitialValue() {
+        return initialValue;
+    }
+
+    public double getFinalValue() {
+        return finalValue;
+    }
+
+    public double getProfitLoss() {
+        return finalValue - initialValue;
+    }
+
+    public double getReturnPercentage() {
+        if (initialValue == 0) return 0;
+        return (getProfitLoss() / initialValue) * 100;
+    }
+
+    public double getMaxDrawdown() {
+        return maxDrawdown;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getTicksPerSecond() {
+        if (elapsedNanos == 0) return 0;
+        return ticks / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder summary = new StringBuilder();
+        summary.append("--- Backtest Summary ---\n");
+        summary.append("Ticks Replayed: ").append(ticks).append("\n");
+        summary.append("Period: ").append(firstTimestamp).append(" - ").append(lastTimestamp).append("\n");
+        summary.append("Trades: ").append(trades).append("\n");
+        summary.append(String.format("Initial Value: $%.2f\n", initialValue));
+        summary.append(String.format("Final Value: $%.2f\n", finalValue));
+        String sign = getProfitLoss() >= 0 ? "+" : "";
+        summary.append(String.format("Profit/Loss: %s$%.2f (%s%.2f%%)\n",
+            sign, getProfitLoss(), sign, getReturnPercentage()));
+        summary.append(String.format("Max Drawdown: %.2f%%\n", maxDrawdown * 100));
+        summary.append(String.format("Elapsed: %.1f ms (%.0f ticks/s)\n",
+            elapsedNanos / 1_000_000.0, getTicksPerSecond()));
+        return summary.toString();
+    }
+} 
@@ -0,0 +1,60 @@
+import java.io.IOException;
+
+public class Backtester {
+    private Market market;
+    private Portfolio portfolio;
+
+    public Backtester(Market market, Portfolio portfolio) {
+        this.market = market;
+        this.portfolio = portfolio;
+    }
+
+    // Replay every tick as fast as possible; the file is streamed, never loaded whole
+    public BacktestResult run(TickReader reader, TradingStrategy strategy) throws IOException {
+        long start = System.nanoTime();
+        Tick tick = new Tick();
+        long ticks = 0;
+        long firstTimestamp = 0;
+        long lastTimestamp = 0;
+        int startTrades = portfolio.getTransactionCount();
+        double initialValue = portfolio.getTotalPortfolioValue(market);
+        double peakValue = initialValue;
+        double maxDrawdown = 0;
+
+        while (reader.next(tick)) {
+            if (ticks == 0) {
+                firstTimestamp = tick.getTimestamp();
+            } else if (tick.getTimestamp() != lastTimestamp) {
+                // Mark to market once per timestamp, after all of its ticks have been applied
+                double value = portfolio.getTotalPortfolioValue(market);
+                peakValue = Math.max(peakValue, value);
+                if (peakValue > 0) {
+                    maxDrawdown = Math.max(maxDrawdown, (peakValue - value) / peakValue);
+                }
+            }
+            lastTimestamp = tick.getTimestamp();
+
+            market.setPrice(tick.getSymbolId(), tick.getPrice());
+            strategy.onTick(tick, market, portfolio);
+            ticks++;
+        }
+        strategy.onFinish(market, portfolio);
+
+        double finalValue = portfolio.getTotalPortfolioValue(market);
+        peakValue = Math.max(peakValue, finalValue);
+        if (peakValue > 0) {
+            maxDrawdown = Math.max(maxDrawdown, (peakValue - finalValue) / peakValue);
+        }
+
+        return new BacktestResult(ticks, firstTimestamp, lastTimestamp,
+            portfolio.getTransactionCount() - startTrades, initialValue, finalValue,
+            maxDrawdown, System.nanoTime() - start);
+    }
+
+    // Replay a tick file (CSV or binary) through the strategy
+    public BacktestResult run(String tickFile, TradingStrategy strategy) throws IOException {
+        try (TickReader reader = TickReader.open(tickFile)) {
+            return run(reader, strategy);
+        }
+    }
+} 
@@ -0,0 +1,96 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class BinaryTickReader implements TickReader {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private SymbolRegistry registry;
+    private int[] symbolIds; // file-local id -> registry id
+    private int symbolCount;
+
+    // Reads files written by BinaryTickWriter (see there for the format)
+    public BinaryTickReader(String path) throws IOException {
+        this.channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.buffer.flip();
+        this.registry = SymbolRegistry.getDefault();
+        this.symbolIds = new int[64];
+
+        if (!fill(4) || buffer.getInt() != BinaryTickWriter.MAGIC) {
+            channel.close();
+            throw new IOException("Not a binary tick file: " + path);
+        }
+    }
+
+    @Override
+    public boolean next(Tick tick) throws IOException {
+        while (fill(1)) {
+            byte type = buffer.get();
+            if (type == BinaryTickWriter.TICK) {
+                if (!fill(BinaryTickWriter.TICK_SIZE)) {
+                    throw new EOFException("Truncated tick record");
+                }
+                int localId = buffer.getInt();
+                long timestamp = buffer.getLong();
+                double price = buffer.getDouble();
+                if (localId < 0 || localId >= symbolCount) {
+                    throw new IOException("Tick refers to undefined symbol " + localId);
+                }
+                tick.set(timestamp, symbolIds[localId], price);
+                return true;
+            } else if (type == BinaryTickWriter.SYMBOL) {
+                readSymbol();
+            } else {
+                throw new IOException("Unknown tick record type: " + type);
+            }
+        }
+        return false;
+    }
+
+    // Symbol definitions appear once, before the first tick that uses them
+    private void readSymbol() throws IOException {
+        if (!fill(2)) {
+            throw new EOFException("Truncated symbol record");
+        }
+        int length = buffer.getShort() & 0xFFFF;
+        if (!fill(length)) {
+            throw new EOFException("Truncated symbol record");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        if (symbolCount == symbolIds.length) {
+            symbolIds = Arrays.copyOf(symbolIds, symbolCount * 2);
+        }
+        symbolIds[symbolCount++] = registry.register(new String(bytes, StandardCharsets.US_ASCII));
+    }
+
+    // Make at least count bytes available; false at a clean end of file
+    private boolean fill(int count) throws IOException {
+        if (buffer.remaining() >= count) {
+            return true;
+        }
+        buffer.compact();
+        while (buffer.position() < count) {
+            if (channel.read(buffer) < 0) {
+                buffer.flip();
+                if (buffer.hasRemaining()) {
+                    throw new EOFException("Truncated tick file");
+                }
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+} 
@@ -0,0 +1,70 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Format: MAGIC, then records. A SYMBOL record ('S', u16 length, ASCII bytes) assigns the
+// next file-local id and is written once, before the symbol's first tick. A TICK record
+// ('T', int localId, long timestamp, double price) is fixed width.
+public class BinaryTickWriter implements AutoCloseable {
+    static final int MAGIC = 0x54494B31; // "TIK1"
+    static final byte SYMBOL = 'S';
+    static final byte TICK = 'T';
+    static final int TICK_SIZE = 4 + 8 + 8;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private DataOutputStream output;
+    private SymbolRegistry registry;
+    private int[] localIds; // registry id -> file-local id, -1 until written
+    private int symbolCount;
+
+    public BinaryTickWriter(String path) throws IOException {
+        this.output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path), BUFFER_SIZE));
+        this.registry = SymbolRegistry.getDefault();
+        this.localIds = new int[0];
+        output.writeInt(MAGIC);
+    }
+
+    public void write(long timestamp, String symbol, double price) throws IOException {
+        write(timestamp, registry.register(symbol), price);
+    }
+
+    public void write(long timestamp, int symbolId, double price) throws IOException {
+        if (symbolId >= localIds.length) {
+            int oldLength = localIds.length;
+            localIds = Arrays.copyOf(localIds, Math.max(symbolId + 1, oldLength * 2));
+            Arrays.fill(localIds, oldLength, localIds.length, -1);
+        }
+        int localId = localIds[symbolId];
+        if (localId < 0) {
+            localId = symbolCount++;
+            localIds[symbolId] = localId;
+            byte[] bytes = registry.getSymbol(symbolId).getBytes(StandardCharsets.US_ASCII);
+            output.writeByte(SYMBOL);
+            output.writeShort(bytes.length);
+            output.write(bytes);
+        }
+        output.writeByte(TICK);
+        output.writeInt(localId);
+        output.writeLong(timestamp);
+        output.writeDouble(price);
+    }
+
+    // Convert any readable tick file (e.g. CSV) to the binary format
+    public static long convert(String sourcePath, String binaryPath) throws IOException {
+        long count = 0;
+        try (TickReader reader = TickReader.open(sourcePath);
+             BinaryTickWriter writer = new BinaryTickWriter(binaryPath)) {
+            Tick tick = new Tick();
+            while (reader.next(tick)) {
+                writer.write(tick.getTimestamp(), tick.getSymbolId(), tick.getPrice());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        output.close();
+    }
+}
@@ -0,0 +1,98 @@
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+public class CorrelatedGbmModel implements PriceModel {
+    private int size;
+    private double[] driftTerms;
+    private double[] diffusionTerms;
+    private double[] cholesky; // lower triangle of L, row-major, where L * L^T = correlation
+    private ThreadLocal<double[]> shocks; // per-thread scratch for the independent draws
+
+    // Per-asset annualized drift and volatility; correlation is a symmetric positive-definite matrix
+    // whose row order matches the price array passed to step()
+    public CorrelatedGbmModel(double[] drifts, double[] volatilities, double[][] correlation, double dt) {
+        this.size = drifts.length;
+        if (volatilities.length != size || correlation.length != size || dt <= 0) {
+            throw new IllegalArgumentException("Drifts, volatilities and correlation must have the same size");
+        }
+        this.driftTerms = new double[size];
+        this.diffusionTerms = new double[size];
+        for (int i = 0; i < size; i++) {
+            driftTerms[i] = (drifts[i] - 0.5 * volatilities[i] * volatilities[i]) * dt;
+            diffusionTerms[i] = volatilities[i] * Math.sqrt(dt);
+        }
+        this.cholesky = decompose(correlation, size);
+        int shockSize = size;
+        this.shocks = ThreadLocal.withInitial(() -> new double[shockSize]);
+    }
+
+    // Same drift and volatility for every asset
+    public CorrelatedGbmModel(double drift, double volatility, double[][] correlation, double dt) {
+        this(filled(correlation.length, drift), filled(correlation.length, volatility), correlation, dt);
+    }
+
+    private static double[] filled(int size, double value) {
+        double[] values = new double[size];
+        Arrays.fill(values, value);
+        return values;
+    }
+
+    private static double[] decompose(double[][] matrix, int size) {
+        double[] lower = new double[size * (size + 1) / 2];
+        for (int i = 0; i < size; i++) {
+            if (matrix[i].length != size) {
+                throw new IllegalArgumentException("Correlation matrix must be square");
+            }
+            int rowI = i * (i + 1) / 2;
+            for (int j = 0; j <= i; j++) {
+                int rowJ = j * (j + 1) / 2;
+                double sum = matrix[i][j];
+                for (int k = 0; k < j; k++) {
+                    sum -= lower[rowI + k] * lower[rowJ + k];
+                }
+                if (i == j) {
+                    if (sum <= 0) {
+                        throw new IllegalArgumentException("Correlation matrix is not positive definite");
+                    }
+                    lower[rowI + i] = Math.sqrt(sum);
+                } else {
+                    lower[rowI + j] = sum / lower[rowJ + j];
+                }
+            }
+        }
+        return lower;
+    }
+
+    @Override
+    public void step(double[] prices, int count, RandomGenerator random) {
+        if (count != size) {
+            throw new IllegalArgumentException("Model covers " + size + " assets, got " + count);
+        }
+        double[] z = shocks.get();
+        for (int i = 0; i < size; i++) {
+            z[i] = random.nextGaussian();
+        }
+        for (int i = 0; i < size; i++) {
+            int row = i * (i + 1) / 2;
+            double shock = 0;
+            for (int j = 0; j <= i; j++) {
+                shock += cholesky[row + j] * z[j];
+            }
+            prices[i] *= Math.exp(driftTerms[i] + diffusionTerms[i] * shock);
+        }
+    }
+
+    @Override
+    public boolean supports(int count) {
+        return count == size;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "Correlated GBM (" + size + " assets)";
+    }
+} 
@@ -0,0 +1,3 @@
+public enum CostBasisMethod {
+    FIFO, AVERAGE_COST
+} 
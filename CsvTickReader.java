@@ -0,0 +1,46 @@
+import java.io.*;
+
+public class CsvTickReader implements TickReader {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private BufferedReader reader;
+    private SymbolRegistry registry;
+    private long skippedLines;
+
+    // Reads "timestamp,symbol,price" lines; a header line and malformed lines are skipped
+    public CsvTickReader(String path) throws IOException {
+        this.reader = new BufferedReader(new FileReader(path), BUFFER_SIZE);
+        this.registry = SymbolRegistry.getDefault();
+    }
+
+    @Override
+    public boolean next(Tick tick) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            int firstComma = line.indexOf(',');
+            int secondComma = firstComma < 0 ? -1 : line.indexOf(',', firstComma + 1);
+            if (secondComma < 0 || firstComma == 0 || !Character.isDigit(line.charAt(0))) {
+                skippedLines++;
+                continue;
+            }
+            try {
+                long timestamp = Long.parseLong(line, 0, firstComma, 10);
+                int symbolId = registry.register(line, firstComma + 1, secondComma);
+                double price = Double.parseDouble(line.substring(secondComma + 1));
+                tick.set(timestamp, symbolId, price);
+                return true;
+            } catch (IllegalArgumentException e) {
+                skippedLines++;
+            }
+        }
+        return false;
+    }
+
+    public long getSkippedLines() {
+        return skippedLines;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+} 
@@ -0,0 +1,121 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public final class FastNumberParser {
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final int MAX_EXACT_DIGITS = 15; // any 15-digit mantissa fits exactly in a double
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private FastNumberParser() {
+    }
+
+    // Parse ASCII digits in [from, to) of the buffer without allocating; surrounding whitespace is ignored
+    public static long parseLong(ByteBuffer buffer, int from, int to) {
+        while (from < to && buffer.get(from) <= ' ') {
+            from++;
+        }
+        while (to > from && buffer.get(to - 1) <= ' ') {
+            to--;
+        }
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        if (i == to || to - i > MAX_LONG_DIGITS) {
+            throw invalid(buffer, from, to);
+        }
+
+        long value = 0;
+        for (; i < to; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw invalid(buffer, from, to);
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    // Parse a decimal such as -12.345 or 1.5e3 in [from, to). Numbers that can be computed exactly
+    // from a long mantissa and one power of ten take the fast path; anything else falls back to the JDK.
+    // Surrounding whitespace is ignored, as Double.parseDouble does.
+    public static double parseDouble(ByteBuffer buffer, int from, int to) {
+        while (from < to && buffer.get(from) <= ' ') {
+            from++;
+        }
+        while (to > from && buffer.get(to - 1) <= ' ') {
+            to--;
+        }
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean sawDigit = false;
+        boolean sawPoint = false;
+        for (; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                sawDigit = true;
+                if (mantissa != 0 || b != '0') {
+                    significantDigits++;
+                }
+                if (significantDigits > MAX_EXACT_DIGITS) {
+                    return fallback(buffer, from, to);
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (sawPoint) {
+                    exponent--;
+                }
+            } else if (b == '.' && !sawPoint) {
+                sawPoint = true;
+            } else if ((b == 'e' || b == 'E') && sawDigit) {
+                exponent += (int) parseLong(buffer, i + 1, to);
+                i = to;
+                break;
+            } else {
+                throw invalid(buffer, from, to);
+            }
+        }
+        if (!sawDigit) {
+            throw invalid(buffer, from, to);
+        }
+
+        double value;
+        if (mantissa == 0) {
+            value = 0.0;
+        } else if (exponent >= 0 && exponent < POWERS_OF_TEN.length) {
+            value = mantissa * POWERS_OF_TEN[exponent];
+        } else if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+            value = mantissa / POWERS_OF_TEN[-exponent];
+        } else {
+            return fallback(buffer, from, to);
+        }
+        return negative ? -value : value;
+    }
+
+    // Decode ASCII bytes in [from, to) as a string
+    public static String asciiString(ByteBuffer buffer, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private static double fallback(ByteBuffer buffer, int from, int to) {
+        return Double.parseDouble(asciiString(buffer, from, to));
+    }
+
+    private static NumberFormatException invalid(ByteBuffer buffer, int from, int to) {
+        return new NumberFormatException("Invalid number: \"" + asciiString(buffer, from, to) + "\"");
+    }
+} 
@@ -20,7 +20,9 @@ public class FileHandler {
             // Save holdings
             Map<String, Integer> holdings = portfolio.getHoldings();
             for (Map.Entry<String, Integer> entry : holdings.entrySet()) {
-                writer.println("HOLDING:" + entry.getKey() + ":" + entry.getValue());
+                Position position = portfolio.getPosition(entry.getKey());
+                double averageCost = position != null ? position.getAverageCost() : 0.0;
+                writer.println("HOLDING:" + entry.getKey() + ":" + entry.getValue() + ":" + averageCost);
             }
             
             return true;
@@ -37,6 +39,7 @@ public class FileHandler {
             String username = "default";
             double cashBalance = 10000.0; // Default starting cash
             Map<String, Integer> holdings = new HashMap<>();
+            Map<String, Double> averageCosts = new HashMap<>();
             
             while ((line = reader.readLine()) != null) {
                 String[] parts = line.split(":");
@@ -50,9 +53,12 @@ public class FileHandler {
                             break;
                         case "HOLDING":
                             if (parts.length >= 3) {
-                                String symbol = parts[1];
+                                String symbol = SymbolRegistry.getDefault().canonical(parts[1]);
                                 int quantity = Integer.parseInt(parts[2]);
                                 holdings.put(symbol, quantity);
+                                if (parts.length >= 4) {
+                                    averageCosts.put(symbol, Double.parseDouble(parts[3]));
+                                }
                             }
                             break;
                     }
@@ -64,9 +70,10 @@ public class FileHandler {
             
             // Restore holdings
             for (Map.Entry<String, Integer> entry : holdings.entrySet()) {
-                // Note: We can't restore the exact purchase prices, so we'll use current market prices
-                // In a real implementation, you'd want to store purchase prices too
-                portfolio.buyStock(entry.getKey(), entry.getValue(), 0.0); // Price will be updated by market
+                // Individual lots are not saved, so each holding comes back as one lot at its average cost
+                // (zero for files written before costs were saved)
+                double averageCost = averageCosts.getOrDefault(entry.getKey(), 0.0);
+                portfolio.restorePosition(entry.getKey(), entry.getValue(), averageCost);
             }
             
             return user;
@@ -0,0 +1,189 @@
+import java.io.*;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+public class GatewaySession implements Runnable {
+    private static final String UNAVAILABLE = "ERR Market data unavailable";
+
+    private TradingGateway gateway;
+    private Socket socket;
+    private User user;
+
+    // Line protocol, one request and one response line each:
+    //   LOGIN <user> | MARKET | QUOTE <sym> | BUY <sym> <qty> | SELL <sym> <qty> | PORTFOLIO | HISTORY | QUIT
+    // Responses start with "OK " or "ERR ". SUBSCRIBE answers "OK FEED" and then switches the
+    // connection to the binary MarketDataFeed stream for the rest of the session.
+    public GatewaySession(TradingGateway gateway, Socket socket) {
+        this.gateway = gateway;
+        this.socket = socket;
+    }
+
+    @Override
+    public void run() {
+        try (Socket s = socket;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.US_ASCII))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().equalsIgnoreCase("SUBSCRIBE")) {
+                    MarketDataFeed feed = gateway.getFeed();
+                    if (feed == null) {
+                        writer.write(UNAVAILABLE + "\n");
+                        writer.flush();
+                        continue;
+                    }
+                    writer.write("OK FEED\n");
+                    writer.flush();
+                    feed.stream(s.getOutputStream());
+                    break;
+                }
+                String response = handle(line.trim());
+                if (response == null) {
+                    break;
+                }
+                writer.write(response);
+                writer.write('\n');
+                writer.flush();
+            }
+        } catch (IOException e) {
+            // Client went away
+        }
+    }
+
+    // Handle one request; returns null when the session should end
+    String handle(String line) {
+        String[] parts = line.split("\\s+");
+        String command = parts[0].toUpperCase();
+        Market market = gateway.getMarket();
+
+        switch (command) {
+            case "QUIT":
+                return null;
+            case "LOGIN":
+                if (parts.length < 2) {
+                    return "ERR Usage: LOGIN <user>";
+                }
+                user = gateway.login(parts[1]);
+                return "OK " + user.getUsername();
+            case "MARKET":
+                if (!gateway.awaitReady()) { // the full board needs every file loaded
+                    return UNAVAILABLE;
+                }
+                return "OK " + formatMarket(market);
+            case "QUOTE":
+                if (parts.length < 2) {
+                    return "ERR Usage: QUOTE <symbol>";
+                }
+                Stock stock = findStock(market, parts[1]);
+                if (stock == null) {
+                    return unknownSymbol(parts[1]);
+                }
+                return String.format("OK %s %.2f %.2f", stock.getSymbol(), stock.getPrice(), stock.getChangePercent());
+            case "BUY":
+            case "SELL":
+                return trade(command, parts, market);
+            case "PORTFOLIO":
+                if (user == null) {
+                    return "ERR Not logged in";
+                }
+                return "OK " + formatPortfolio(market);
+            case "HISTORY":
+                if (user == null) {
+                    return "ERR Not logged in";
+                }
+                return "OK " + formatHistory();
+            default:
+                return "ERR Unknown command " + parts[0];
+        }
+    }
+
+    private String trade(String command, String[] parts, Market market) {
+        if (user == null) {
+            return "ERR Not logged in";
+        }
+        if (parts.length < 3) {
+            return "ERR Usage: " + command + " <symbol> <quantity>";
+        }
+        Stock stock = findStock(market, parts[1]);
+        if (stock == null) {
+            return unknownSymbol(parts[1]);
+        }
+        int quantity;
+        try {
+            quantity = Integer.parseInt(parts[2]);
+        } catch (NumberFormatException e) {
+            return "ERR Invalid quantity";
+        }
+        if (quantity <= 0) {
+            return "ERR Quantity must be positive";
+        }
+
+        double price = stock.getPrice();
+        Portfolio portfolio = user.getPortfolio();
+        boolean buy = command.equals("BUY");
+        Transaction transaction;
+        // Several sessions may share a user, and Portfolio itself is not thread-safe
+        synchronized (portfolio) {
+            transaction = buy ? portfolio.recordBuy(stock.getSymbolId(), quantity, price)
+                : portfolio.recordSell(stock.getSymbolId(), quantity, price);
+        }
+        if (transaction == null) {
+            return buy ? "ERR Insufficient funds" : "ERR Insufficient shares";
+        }
+        // Publishing may park on a full bus, which must not happen inside the monitor
+        portfolio.publishTrade(transaction);
+        return String.format("OK %s %d %s %.2f", command, quantity, stock.getSymbol(), price);
+    }
+
+    // Listed stocks are served while market files are still loading; other symbols wait for the load
+    private Stock findStock(Market market, String symbol) {
+        Stock stock = market.getStock(symbol);
+        if (stock == null && gateway.awaitReady()) {
+            stock = market.getStock(symbol);
+        }
+        return stock;
+    }
+
+    // A missing symbol is only known to be unknown once the market loaded
+    private String unknownSymbol(String symbol) {
+        return gateway.awaitReady() ? "ERR Unknown symbol " + symbol : UNAVAILABLE;
+    }
+
+    private String formatMarket(Market market) {
+        StringBuilder data = new StringBuilder();
+        for (Stock stock : market.getListedStocks()) {
+            if (data.length() > 0) {
+                data.append(' ');
+            }
+            data.append(stock.getSymbol()).append('=').append(String.format("%.2f", stock.getPrice()));
+        }
+        return data.toString();
+    }
+
+    private String formatPortfolio(Market market) {
+        Portfolio portfolio = user.getPortfolio();
+        StringBuilder data = new StringBuilder();
+        synchronized (portfolio) {
+            data.append(String.format("cash=%.2f value=%.2f",
+                portfolio.getCashBalance(), portfolio.getTotalPortfolioValue(market)));
+            for (Map.Entry<String, Integer> entry : portfolio.getHoldings().entrySet()) {
+                data.append(' ').append(entry.getKey()).append(':').append(entry.getValue());
+            }
+        }
+        return data.toString();
+    }
+
+    private String formatHistory() {
+        Portfolio portfolio = user.getPortfolio();
+        StringBuilder data = new StringBuilder();
+        synchronized (portfolio) {
+            data.append(portfolio.getTransactionCount());
+            for (Transaction transaction : portfolio.getTransactionHistory()) {
+                data.append(String.format(" %s:%s:%d:%.2f", transaction.getType(),
+                    transaction.getStockSymbol(), transaction.getQuantity(), transaction.getPrice()));
+            }
+        }
+        return data.toString();
+    }
+} 
@@ -0,0 +1,45 @@
+import java.util.random.RandomGenerator;
+
+public class GeometricBrownianMotionModel implements PriceModel {
+    private double drift;
+    private double volatility;
+    private double dt;
+    private double driftTerm; // (mu - sigma^2 / 2) * dt
+    private double diffusionTerm; // sigma * sqrt(dt)
+
+    // drift and volatility are annualized; dt is the step length in years
+    public GeometricBrownianMotionModel(double drift, double volatility, double dt) {
+        if (volatility < 0 || dt <= 0) {
+            throw new IllegalArgumentException("Volatility must be non-negative and dt positive");
+        }
+        this.drift = drift;
+        this.volatility = volatility;
+        this.dt = dt;
+        this.driftTerm = (drift - 0.5 * volatility * volatility) * dt;
+        this.diffusionTerm = volatility * Math.sqrt(dt);
+    }
+
+    @Override
+    public void step(double[] prices, int count, RandomGenerator random) {
+        for (int i = 0; i < count; i++) {
+            prices[i] *= Math.exp(driftTerm + diffusionTerm * random.nextGaussian());
+        }
+    }
+
+    public double getDrift() {
+        return drift;
+    }
+
+    public double getVolatility() {
+        return volatility;
+    }
+
+    public double getDt() {
+        return dt;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GBM (drift %.2f%%, vol %.2f%%)", drift * 100, volatility * 100);
+    }
+} 
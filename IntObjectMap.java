@@ -0,0 +1,137 @@
+import java.util.Arrays;
+
+// Open-addressed map from non-negative int keys (e.g. symbol registry ids) to values, for sparse
+// per-object tables where an array indexed by id would mostly be empty. Not thread-safe.
+// Iterate with: for (int slot = 0; slot < map.capacity(); slot++) if (map.keyAt(slot) >= 0) ...
+final class IntObjectMap<V> {
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    IntObjectMap() {
+        this(4);
+    }
+
+    IntObjectMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    private int slotOf(int key) {
+        int hash = key * 0x9E3779B9; // spread consecutive ids across the table
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        for (int slot = slotOf(key); keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return (V) values[slot];
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    V put(int key, V value) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Negative key: " + key);
+        }
+        int slot = slotOf(key);
+        for (; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    V remove(int key) {
+        int slot = slotOf(key);
+        for (; keys[slot] != key; slot = (slot + 1) & mask) {
+            if (keys[slot] == EMPTY) {
+                return null;
+            }
+        }
+        V previous = (V) values[slot];
+
+        // Backward-shift deletion: pull later entries of the probe run into the gap
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = slotOf(keys[next]);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = EMPTY;
+        values[gap] = null;
+        size--;
+        return previous;
+    }
+
+    void clear() {
+        if (size > 0) {
+            Arrays.fill(keys, EMPTY);
+            Arrays.fill(values, null);
+            size = 0;
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotOf(oldKeys[i]);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Slot-based iteration; keyAt is negative for an empty slot
+    int capacity() {
+        return keys.length;
+    }
+
+    int keyAt(int slot) {
+        return keys[slot];
+    }
+
+    @SuppressWarnings("unchecked")
+    V valueAt(int slot) {
+        return (V) values[slot];
+    }
+}
@@ -0,0 +1,55 @@
+import java.util.random.RandomGenerator;
+
+public class JumpDiffusionModel implements PriceModel {
+    private double drift;
+    private double volatility;
+    private double dt;
+    private double jumpIntensity; // expected jumps per year
+    private double jumpMean; // mean of log jump size
+    private double jumpVolatility; // std dev of log jump size
+    private double driftTerm;
+    private double diffusionTerm;
+    private double noJumpProbability; // exp(-lambda * dt)
+
+    // Merton jump-diffusion: GBM plus Poisson-arriving lognormal jumps.
+    // The drift is compensated so the expected return stays equal to drift.
+    public JumpDiffusionModel(double drift, double volatility, double dt,
+                              double jumpIntensity, double jumpMean, double jumpVolatility) {
+        if (volatility < 0 || dt <= 0 || jumpIntensity < 0 || jumpVolatility < 0) {
+            throw new IllegalArgumentException("Invalid jump-diffusion parameters");
+        }
+        this.drift = drift;
+        this.volatility = volatility;
+        this.dt = dt;
+        this.jumpIntensity = jumpIntensity;
+        this.jumpMean = jumpMean;
+        this.jumpVolatility = jumpVolatility;
+
+        double meanJump = Math.exp(jumpMean + 0.5 * jumpVolatility * jumpVolatility) - 1;
+        this.driftTerm = (drift - 0.5 * volatility * volatility - jumpIntensity * meanJump) * dt;
+        this.diffusionTerm = volatility * Math.sqrt(dt);
+        this.noJumpProbability = Math.exp(-jumpIntensity * dt);
+    }
+
+    @Override
+    public void step(double[] prices, int count, RandomGenerator random) {
+        for (int i = 0; i < count; i++) {
+            double logReturn = driftTerm + diffusionTerm * random.nextGaussian();
+
+            // Knuth's Poisson sampling; lambda * dt is small so this is usually one draw
+            double product = random.nextDouble();
+            while (product > noJumpProbability) {
+                logReturn += jumpMean + jumpVolatility * random.nextGaussian();
+                product *= random.nextDouble();
+            }
+
+            prices[i] *= Math.exp(logReturn);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Jump diffusion (drift %.2f%%, vol %.2f%%, %.1f jumps/yr)",
+            drift * 100, volatility * 100, jumpIntensity);
+    }
+} 
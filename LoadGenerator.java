@@ -0,0 +1,112 @@
+import java.io.*;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LoadGenerator {
+    private static final String[] SYMBOLS = {"AAPL", "GOOG", "TSLA", "MSFT", "AMZN"};
+
+    // Usage: java LoadGenerator <port> [clients] [requestsPerClient]
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("Usage: java LoadGenerator <port> [clients] [requestsPerClient]");
+            return;
+        }
+        int port = Integer.parseInt(args[0]);
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        System.out.println(run("localhost", port, clients, requests));
+    }
+
+    // Open clients concurrent sessions that each send a mix of quotes, trades and portfolio views
+    public static String run(String host, int port, int clients, int requests) throws InterruptedException {
+        long[][] latencies = new long[clients][];
+        AtomicLong errors = new AtomicLong();
+        ExecutorService executor = TradingGateway.newSessionExecutor();
+
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            executor.execute(() -> latencies[client] = runClient(host, port, client, requests, errors));
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+        long elapsed = System.nanoTime() - start;
+
+        int total = 0;
+        for (long[] clientLatencies : latencies) {
+            total += clientLatencies == null ? 0 : clientLatencies.length;
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (long[] clientLatencies : latencies) {
+            if (clientLatencies != null) {
+                System.arraycopy(clientLatencies, 0, all, offset, clientLatencies.length);
+                offset += clientLatencies.length;
+            }
+        }
+        Arrays.sort(all);
+
+        StringBuilder report = new StringBuilder();
+        report.append("--- Load Test ---\n");
+        report.append("Clients: ").append(clients).append(", requests per client: ").append(requests).append("\n");
+        report.append("Completed: ").append(total).append(", errors: ").append(errors.get()).append("\n");
+        report.append(String.format("Elapsed: %.1f ms, throughput: %.0f req/s\n",
+            elapsed / 1_000_000.0, total / (elapsed / 1_000_000_000.0)));
+        if (total > 0) {
+            report.append(String.format("Latency p50: %.3f ms, p99: %.3f ms, max: %.3f ms\n",
+                percentile(all, 0.50), percentile(all, 0.99), all[total - 1] / 1_000_000.0));
+        }
+        return report.toString();
+    }
+
+    private static long[] runClient(String host, int port, int client, int requests, AtomicLong errors) {
+        long[] latencies = new long[requests];
+        int completed = 0;
+        try (Socket socket = new Socket(host, port);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             PrintWriter writer = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+            socket.setTcpNoDelay(true);
+            request(writer, reader, "LOGIN load" + client);
+
+            String symbol = SYMBOLS[client % SYMBOLS.length];
+            for (; completed < requests; completed++) {
+                String command;
+                switch (completed % 4) {
+                    case 0: command = "QUOTE " + symbol; break;
+                    case 1: command = "BUY " + symbol + " 1"; break;
+                    case 2: command = "SELL " + symbol + " 1"; break;
+                    default: command = "PORTFOLIO"; break;
+                }
+                long sent = System.nanoTime();
+                String response = request(writer, reader, command);
+                latencies[completed] = System.nanoTime() - sent;
+                if (response == null) {
+                    break;
+                }
+                if (!response.startsWith("OK")) {
+                    errors.incrementAndGet();
+                }
+            }
+            writer.println("QUIT");
+            writer.flush();
+        } catch (IOException e) {
+            errors.incrementAndGet();
+        }
+        return Arrays.copyOf(latencies, completed);
+    }
+
+    private static String request(PrintWriter writer, BufferedReader reader, String command) throws IOException {
+        writer.println(command);
+        writer.flush();
+        return reader.readLine();
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(fraction * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+} 
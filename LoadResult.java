@@ -0,0 +1,18 @@
+public class LoadResult {
+    private long loaded;
+    private long skipped; // malformed lines; a header line is not counted
+
+    public LoadResult(long loaded, long skipped) {
+        this.loaded = loaded;
+        this.skipped = skipped;
+    }
+
+    // Getters
+    public long getLoaded() {
+        return loaded;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+} 
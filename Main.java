@@ -1,4 +1,7 @@
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -8,15 +11,33 @@ public class Main {
     private static User currentUser;
     private static Scanner scanner;
     private static ScheduledExecutorService marketScheduler;
+    private static RiskEngine riskEngine;
+    private static CompletableFuture<String> startup; // background loading in fast-start mode
 
     public static void main(String[] args) {
-        initializeApplication();
+        boolean fastStart = Arrays.asList(args).contains("--fast-start");
+        if (args.length >= 2 && args[0].equals("--backtest")) {
+            runBacktest(args[1]);
+            return;
+        }
+        if (args.length >= 2 && args[0].equals("--gateway")) {
+            runGateway(Integer.parseInt(args[1]), args, fastStart);
+            return;
+        }
+
+        if (fastStart) {
+            initializeFastStart(args);
+        } else {
+            initializeApplication();
+            System.out.print(loadMarketData(args));
+        }
         runMainMenu();
         cleanup();
     }
 
     private static void initializeApplication() {
         market = new Market();
+        riskEngine = new RiskEngine();
         scanner = new Scanner(System.in);
         
         // Try to load existing user data
@@ -31,11 +52,101 @@ public class Main {
         } else {
             createNewUser();
         }
+        currentUser.getPortfolio().setEventBus(market.getEventBus());
 
         // Start market simulation (optional enhancement)
         startMarketSimulation();
     }
 
+    // Show the menu straight away and load market files in the background. Stocks that are
+    // already listed are served at once; only a symbol that is not listed yet waits for the load.
+    private static void initializeFastStart(String[] args) {
+        market = new Market();
+        riskEngine = new RiskEngine();
+        scanner = new Scanner(System.in);
+
+        startup = CompletableFuture.supplyAsync(() -> loadMarketData(args))
+            .handle((messages, error) -> {
+                startMarketSimulation();
+                return error == null ? messages : loadFailure(error);
+            });
+
+        if (FileHandler.portfolioFileExists()) {
+            currentUser = FileHandler.loadPortfolioData();
+            if (currentUser != null) {
+                System.out.println("Welcome back, " + currentUser.getUsername() + "!");
+            }
+        }
+        if (currentUser == null) {
+            createNewUser();
+        }
+        currentUser.getPortfolio().setEventBus(market.getEventBus());
+    }
+
+    // Print the loader's messages once it is done, without waiting for it
+    private static void reportStartup() {
+        if (startup != null && startup.isDone()) {
+            System.out.print(startup.join());
+            startup = null;
+        }
+    }
+
+    // Wait for background loading to finish; returns at once when it already has
+    private static void awaitStartup() {
+        if (startup != null) {
+            System.out.println("Waiting for market data to finish loading...");
+            System.out.print(startup.join());
+            startup = null;
+        }
+    }
+
+    // Listed stocks are served while market files are still loading; other symbols wait for the load
+    private static Stock findStock(String symbol) {
+        Stock stock = market.getStock(symbol);
+        if (stock == null && startup != null) {
+            awaitStartup();
+            stock = market.getStock(symbol);
+        }
+        return stock;
+    }
+
+    // Load a symbol universe (--universe file) and price history (--history file) if given,
+    // returning the progress messages
+    private static String loadMarketData(String[] args) {
+        StringBuilder messages = new StringBuilder();
+        for (int i = 0; i + 1 < args.length; i++) {
+            try {
+                switch (args[i]) {
+                    case "--universe":
+                        LoadResult symbols = MarketDataLoader.loadUniverse(args[++i], market);
+                        messages.append("Loaded ").append(symbols.getLoaded()).append(" symbols from ").append(args[i]);
+                        appendSkipped(messages, symbols);
+                        break;
+                    case "--history":
+                        LoadResult prices = MarketDataLoader.loadPriceHistory(args[++i], market);
+                        messages.append("Loaded ").append(prices.getLoaded()).append(" historical prices from ").append(args[i]);
+                        appendSkipped(messages, prices);
+                        break;
+                }
+            } catch (IOException e) {
+                System.err.println("Error loading market data: " + e.getMessage());
+            }
+        }
+        return messages.toString();
+    }
+
+    private static String loadFailure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return "Error loading market data: " + cause + "\n";
+    }
+
+    private static void appendSkipped(StringBuilder messages, LoadResult result) {
+        if (result.getSkipped() > 0) {
+            messages.append(" (skipped ").append(result.getSkipped()).append(" malformed lines)");
+        }
+        messages.append("\n");
+    }
+
     private static void createNewUser() {
         System.out.println("Welcome to Stock Trading Platform!");
         System.out.print("Enter your username: ");
@@ -48,16 +159,75 @@ public class Main {
     private static void startMarketSimulation() {
         marketScheduler = Executors.newScheduledThreadPool(1);
         marketScheduler.scheduleAtFixedRate(() -> {
-            market.updateMarket();
+            // An exception escaping here would cancel the simulation for good
+            try {
+                market.updateMarket();
+            } catch (RuntimeException e) {
+                System.err.println("Error updating market: " + e.getMessage());
+            }
         }, 30, 30, TimeUnit.SECONDS); // Update market every 30 seconds
     }
 
+    // Replay a tick file through a sample strategy with no wall-clock waiting
+    private static void runBacktest(String tickFile) {
+        Market backtestMarket = new Market();
+        Portfolio portfolio = new Portfolio(10000.0);
+        TradingStrategy strategy = new MovingAverageCrossoverStrategy(10, 50, 10);
+
+        System.out.println("Backtesting " + strategy + " on " + tickFile + "...");
+        try {
+            BacktestResult result = new Backtester(backtestMarket, portfolio).run(tickFile, strategy);
+            System.out.println(result);
+            System.out.println(portfolio.getPortfolioSummary(backtestMarket));
+        } catch (IOException e) {
+            System.err.println("Error running backtest: " + e.getMessage());
+        }
+    }
+
+    // Serve the market over the network instead of the console menu, until Enter is pressed.
+    // With --fast-start the gateway accepts connections while market files load in the background.
+    private static void runGateway(int port, String[] args, boolean fastStart) {
+        market = new Market();
+        TradingGateway gateway = new TradingGateway(market, port);
+        try {
+            if (fastStart) {
+                // The simulation starts even if loading fails; sessions then answer ERR for the missing data
+                CompletableFuture<String> ready = CompletableFuture.supplyAsync(() -> loadMarketData(args))
+                    .whenComplete((messages, error) -> {
+                        System.out.print(error == null ? messages : loadFailure(error));
+                        startMarketSimulation();
+                    });
+                gateway.setReady(ready);
+                gateway.start();
+            } else {
+                System.out.print(loadMarketData(args));
+                startMarketSimulation();
+                gateway.start();
+            }
+            System.out.println("Trading gateway listening on localhost:" + gateway.getPort());
+            System.out.println("Press Enter to stop...");
+            new Scanner(System.in).nextLine();
+        } catch (IOException e) {
+            System.err.println("Error starting gateway: " + e.getMessage());
+        } catch (NoSuchElementException e) {
+            // Input closed
+        } finally {
+            gateway.stop();
+            if (marketScheduler != null) {
+                marketScheduler.shutdown();
+            }
+            market.getEventBus().shutdown();
+            System.out.println("Gateway stopped. Sessions served: " + gateway.getTotalSessions());
+        }
+    }
+
     private static void runMainMenu() {
         boolean running = true;
         
         while (running) {
             displayMainMenu();
             int choice = getValidChoice(1, 8);
+            reportStartup();
             
             switch (choice) {
                 case 1:
@@ -112,6 +282,9 @@ public class Main {
     private static void viewMarketData() {
         System.out.println("\n" + market.getMarketDataString());
         System.out.println("Available symbols: " + String.join(", ", market.getAvailableSymbols()));
+        if (startup != null) {
+            System.out.println("(market data is still loading; more symbols will follow)");
+        }
     }
 
     private static void buyStock() {
@@ -122,12 +295,12 @@ public class Main {
         System.out.print("Enter stock symbol to buy: ");
         String symbol = scanner.nextLine().toUpperCase();
         
-        if (!market.stockExists(symbol)) {
+        Stock stock = findStock(symbol);
+        if (stock == null) {
             System.out.println("Error: Stock symbol '" + symbol + "' not found!");
             return;
         }
         
-        Stock stock = market.getStock(symbol);
         System.out.println("Current price: " + stock.getFormattedPrice());
         
         System.out.print("Enter quantity to buy: ");
@@ -187,7 +360,11 @@ public class Main {
         }
         
         int availableShares = portfolio.getShareQuantity(symbol);
-        Stock stock = market.getStock(symbol);
+        Stock stock = findStock(symbol);
+        if (stock == null) {
+            System.out.println("Error: Stock symbol '" + symbol + "' not found!");
+            return;
+        }
         
         System.out.println("Available shares: " + availableShares);
         System.out.println("Current price: " + stock.getFormattedPrice());
@@ -219,7 +396,18 @@ public class Main {
     }
 
     private static void viewPortfolio() {
-        System.out.println("\n" + currentUser.getPortfolio().getPortfolioSummary(market.getAllStocks()));
+        Portfolio portfolio = currentUser.getPortfolio();
+        for (String symbol : portfolio.getHoldings().keySet()) {
+            findStock(symbol); // a holding that is not listed yet waits for the load
+        }
+        System.out.println("\n" + portfolio.getPortfolioSummary(market));
+        if (!portfolio.getHoldings().isEmpty()) {
+            try {
+                System.out.println(riskEngine.calculateRisk(portfolio, market));
+            } catch (IllegalStateException e) {
+                System.out.println("Risk report unavailable: " + e.getMessage());
+            }
+        }
     }
 
     private static void viewTransactionHistory() {
@@ -259,7 +447,9 @@ public class Main {
         
         if (confirm.equals("y") || confirm.equals("yes")) {
             FileHandler.deletePortfolioFile();
+            currentUser.getPortfolio().close();
             currentUser = new User(currentUser.getUsername(), "password", 10000.0);
+            currentUser.getPortfolio().setEventBus(market.getEventBus());
             System.out.println("Portfolio reset! Starting balance: $10,000");
         } else {
             System.out.println("Reset cancelled.");
@@ -296,10 +486,15 @@ public class Main {
         FileHandler.savePortfolioData(currentUser);
         FileHandler.saveTransactionHistory(currentUser.getPortfolio().getTransactionHistory());
         FileHandler.saveUserData(currentUser);
-        
+
+        if (startup != null) {
+            startup.join(); // the loader starts the simulation when it finishes
+        }
         if (marketScheduler != null) {
             marketScheduler.shutdown();
         }
+        market.getEventBus().shutdown();
+        riskEngine.shutdown();
         
         System.out.println("Thank you for using Stock Trading Platform!");
         scanner.close();
@@ -1,57 +1,196 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.*;
 
 public class Market {
-    private Map<String, Stock> stocks;
+    private static final VarHandle STOCK_SLOT = MethodHandles.arrayElementVarHandle(Stock[].class);
+
+    // Stocks are listed by one thread at a time (a loader, then the simulation) and read from any
+    // thread. Slots of stocksById are written with release and read with acquire, and a grown array
+    // is filled before it is published. Listing order is trusted only below listedCount, which is
+    // published after the stock is stored, as in SymbolRegistry.
+    private volatile Stock[] listed; // stocks in listing order
+    private volatile int listedCount;
     private Random random;
+    private MarketEventBus eventBus;
+    private PriceModel priceModel;
+    private Stock[] universe; // stocks in model order
+    private double[] priceBuffer;
+    private boolean universeChanged; // stocks were added since universe was built
+    private SymbolRegistry registry;
+    private volatile Stock[] stocksById; // indexed by registry id
+    private PriceHistory[] historyById; // indexed by registry id, null where none was loaded
 
     public Market() {
-        this.stocks = new HashMap<>();
+        this.listed = new Stock[16]; // keeps symbol order stable for the price model
+        this.registry = SymbolRegistry.getDefault();
+        this.stocksById = new Stock[registry.size() + 16];
+        this.historyById = new PriceHistory[0];
         this.random = new Random();
+        this.eventBus = new MarketEventBus();
+        this.priceModel = new UniformRandomWalkModel();
         initializeMarket();
+        rebuildUniverse();
     }
 
     private void initializeMarket() {
         // Initialize with popular stocks
-        stocks.put("AAPL", new Stock("AAPL", 175.20));
-        stocks.put("GOOG", new Stock("GOOG", 2450.00));
-        stocks.put("TSLA", new Stock("TSLA", 720.55));
-        stocks.put("MSFT", new Stock("MSFT", 380.75));
-        stocks.put("AMZN", new Stock("AMZN", 145.80));
-        stocks.put("META", new Stock("META", 320.45));
-        stocks.put("NVDA", new Stock("NVDA", 485.90));
-        stocks.put("NFLX", new Stock("NFLX", 450.25));
-        stocks.put("JPM", new Stock("JPM", 165.30));
-        stocks.put("JNJ", new Stock("JNJ", 155.60));
+        listStock(new Stock("AAPL", 175.20, "Technology"));
+        listStock(new Stock("GOOG", 2450.00, "Technology"));
+        listStock(new Stock("TSLA", 720.55, "Consumer"));
+        listStock(new Stock("MSFT", 380.75, "Technology"));
+        listStock(new Stock("AMZN", 145.80, "Consumer"));
+        listStock(new Stock("META", 320.45, "Technology"));
+        listStock(new Stock("NVDA", 485.90, "Technology"));
+        listStock(new Stock("NFLX", 450.25, "Communication"));
+        listStock(new Stock("JPM", 165.30, "Financials"));
+        listStock(new Stock("JNJ", 155.60, "Healthcare"));
+    }
+
+    private void listStock(Stock stock) {
+        int id = stock.getSymbolId();
+        Stock[] byId = stocksById;
+        if (id >= byId.length) {
+            byId = Arrays.copyOf(byId, Math.max(id + 1, byId.length * 2));
+        }
+        STOCK_SLOT.setRelease(byId, id, stock);
+        stocksById = byId;
+
+        int count = listedCount;
+        Stock[] order = listed;
+        if (count == order.length) {
+            order = Arrays.copyOf(order, count * 2);
+        }
+        order[count] = stock;
+        listed = order;
+        listedCount = count + 1;
     }
 
     // Get all stocks
     public Map<String, Stock> getAllStocks() {
-        return new HashMap<>(stocks);
+        Map<String, Stock> all = new LinkedHashMap<>();
+        for (Stock stock : getListedStocks()) {
+            all.put(stock.getSymbol(), stock);
+        }
+        return all;
+    }
+
+    // Snapshot of the stocks listed so far, in listing order; safe to call while stocks are being listed
+    public List<Stock> getListedStocks() {
+        int count = listedCount;
+        return Arrays.asList(Arrays.copyOf(listed, count));
     }
 
     // Get a specific stock
     public Stock getStock(String symbol) {
-        return stocks.get(symbol.toUpperCase());
+        return getStock(registry.idOf(symbol));
+    }
+
+    // Get a stock by symbol registry id
+    public Stock getStock(int symbolId) {
+        Stock[] byId = stocksById;
+        return symbolId >= 0 && symbolId < byId.length ? (Stock) STOCK_SLOT.getAcquire(byId, symbolId) : null;
     }
 
     // Check if stock exists
     public boolean stockExists(String symbol) {
-        return stocks.containsKey(symbol.toUpperCase());
+        return getStock(symbol) != null;
     }
 
     // Update all stock prices (simulate market movement)
     public void updateMarket() {
-        for (Stock stock : stocks.values()) {
-            stock.updatePrice();
+        if (universeChanged) {
+            rebuildUniverse();
+        }
+        int count = universe.length;
+        for (int i = 0; i < count; i++) {
+            priceBuffer[i] = universe[i].getPrice();
+        }
+        priceModel.step(priceBuffer, count, random);
+        for (int i = 0; i < count; i++) {
+            universe[i].setPrice(priceBuffer[i]);
+        }
+        eventBus.publishTicks(universe, count);
+    }
+
+    private void rebuildUniverse() {
+        universe = Arrays.copyOf(listed, listedCount);
+        priceBuffer = new double[universe.length];
+        universeChanged = false;
+
+        // A fixed-size model (e.g. correlated) no longer fits once stocks are listed
+        if (priceModel != null && !priceModel.supports(universe.length)) {
+            System.err.println(priceModel + " cannot step " + universe.length
+                + " stocks; falling back to the uniform random walk");
+            priceModel = new UniformRandomWalkModel();
         }
     }
 
+    // Record a historical price and move the stock to it
+    public void addHistory(String symbol, long timestamp, double price) {
+        addHistory(registry.register(symbol), timestamp, price);
+    }
+
+    public void addHistory(int symbolId, long timestamp, double price) {
+        if (symbolId >= historyById.length) {
+            historyById = Arrays.copyOf(historyById, Math.max(symbolId + 1, historyById.length * 2));
+        }
+        PriceHistory history = historyById[symbolId];
+        if (history == null) {
+            history = new PriceHistory(registry.getSymbol(symbolId));
+            historyById[symbolId] = history;
+        }
+        history.add(timestamp, price);
+        setPrice(symbolId, price);
+    }
+
+    // Get loaded price history for a stock (null if none was loaded)
+    public PriceHistory getPriceHistory(String symbol) {
+        int id = registry.idOf(symbol);
+        return id >= 0 && id < historyById.length ? historyById[id] : null;
+    }
+
+    // Move a stock to an observed price (e.g. replayed tick data), listing it if it is new
+    public void setPrice(String symbol, double price) {
+        setPrice(registry.register(symbol), price);
+    }
+
+    public void setPrice(int symbolId, double price) {
+        Stock stock = getStock(symbolId);
+        if (stock != null) {
+            stock.setPrice(price);
+        } else {
+            listStock(new Stock(registry.getSymbol(symbolId), price));
+            universeChanged = true;
+        }
+    }
+
+    // Replace the model used to move prices; its asset order is getAvailableSymbols()
+    public void setPriceModel(PriceModel priceModel) {
+        if (universeChanged) {
+            rebuildUniverse();
+        }
+        if (!priceModel.supports(universe.length)) {
+            throw new IllegalArgumentException(priceModel + " cannot step " + universe.length + " stocks");
+        }
+        this.priceModel = priceModel;
+    }
+
+    public PriceModel getPriceModel() {
+        return priceModel;
+    }
+
+    // Get the event bus carrying market ticks and trades
+    public MarketEventBus getEventBus() {
+        return eventBus;
+    }
+
     // Get market data as formatted string
     public String getMarketDataString() {
         StringBuilder marketData = new StringBuilder();
         marketData.append("--- Market Data ---\n");
         
-        for (Stock stock : stocks.values()) {
+        for (Stock stock : getListedStocks()) {
             marketData.append(stock.toString()).append("\n");
         }
         
@@ -60,14 +199,18 @@ public class Market {
 
     // Get available stock symbols
     public List<String> getAvailableSymbols() {
-        return new ArrayList<>(stocks.keySet());
+        List<String> symbols = new ArrayList<>();
+        for (Stock stock : getListedStocks()) {
+            symbols.add(stock.getSymbol());
+        }
+        return symbols;
     }
 
     // Get market summary
     public String getMarketSummary() {
         StringBuilder summary = new StringBuilder();
         summary.append("Market Summary:\n");
-        summary.append("Total Stocks: ").append(stocks.size()).append("\n");
+        summary.append("Total Stocks: ").append(listedCount).append("\n");
         summary.append("Available Symbols: ").append(String.join(", ", getAvailableSymbols())).append("\n");
         return summary.toString();
     }
@@ -0,0 +1,243 @@
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class MarketDataFeed implements MarketListener {
+    // Wire format. Prices travel as fixed-point ticks of 1/10000 and all integers as varints.
+    //   Snapshot: 'S' count { id symbol(UTF) price }
+    //   Delta:    'D' tick newCount { id symbol(UTF) } changeCount { id zigzag(price - lastSentPrice) }
+    // Ids are the server's symbol registry ids; a new symbol's last sent price counts as 0.
+    static final byte SNAPSHOT = 'S';
+    static final byte DELTA = 'D';
+    static final double PRICE_SCALE = 10_000.0;
+
+    private SymbolRegistry registry;
+    private int[] listed; // guarded by this, ids in the order the feed learned of them
+    private int listedCount; // guarded by this
+    private BitSet known; // guarded by this, ids in listed
+    private long[] latest; // guarded by this, price ticks by id
+    private BitSet changed; // guarded by this, ids changed in the current tick
+    private long currentTick; // guarded by this
+    private List<Subscriber> subscribers;
+    private MarketEventBus.Subscription subscription;
+
+    // Start from the market's current prices and follow its ticks from the event bus
+    public MarketDataFeed(Market market) {
+        this.registry = SymbolRegistry.getDefault();
+        this.listed = new int[64];
+        this.known = new BitSet();
+        this.latest = new long[registry.size() + 16];
+        this.changed = new BitSet();
+        this.subscribers = new CopyOnWriteArrayList<>();
+        synchronized (this) {
+            for (Stock stock : market.getListedStocks()) {
+                int id = stock.getSymbolId();
+                list(id);
+                latest[id] = toTicks(stock.getPrice());
+            }
+        }
+        this.subscription = market.getEventBus().subscribe("market-data-feed", this);
+    }
+
+    static long toTicks(double price) {
+        return Math.round(price * PRICE_SCALE);
+    }
+
+    private void list(int id) {
+        if (!known.get(id)) {
+            known.set(id);
+            if (listedCount == listed.length) {
+                listed = Arrays.copyOf(listed, listedCount * 2);
+            }
+            listed[listedCount++] = id;
+            if (id >= latest.length) {
+                latest = Arrays.copyOf(latest, Math.max(id + 1, latest.length * 2));
+            }
+        }
+    }
+
+    @Override
+    public void onEvent(MarketEvent event, boolean endOfBatch) {
+        if (event.getType() != MarketEvent.EventType.TICK) {
+            return;
+        }
+        synchronized (this) {
+            int id = event.getSymbolId();
+            list(id);
+            long ticks = toTicks(event.getPrice());
+            if (latest[id] != ticks) {
+                latest[id] = ticks;
+                changed.set(id);
+            }
+            currentTick = event.getTickNumber();
+            if (event.isLastInTick() && !changed.isEmpty()) {
+                for (Subscriber subscriber : subscribers) {
+                    subscriber.markDirty(changed);
+                }
+                changed.clear();
+            }
+        }
+    }
+
+    // Push a snapshot and then deltas to out on a background thread
+    public Subscriber subscribe(OutputStream out) {
+        Subscriber subscriber = new Subscriber(out);
+        Thread thread = new Thread(() -> {
+            try {
+                subscriber.stream();
+            } catch (IOException e) {
+                // Subscriber went away
+            }
+        }, "market-data-subscriber");
+        thread.setDaemon(true);
+        thread.start();
+        return subscriber;
+    }
+
+    // Push a snapshot and then deltas to out on the calling thread, until it fails or is closed
+    public void stream(OutputStream out) throws IOException {
+        new Subscriber(out).stream();
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public void close() {
+        subscription.close();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+    }
+
+    public class Subscriber {
+        private OutputStream out;
+        private ByteArrayOutputStream frame; // frames are encoded under the feed lock, written outside it
+        private DataOutputStream encoder;
+        private BitSet dirty; // guarded by this, ids changed since the last frame
+        private BitSet sending; // only touched by the streaming thread
+        private long[] lastSent; // price ticks last sent to this subscriber, by id
+        private int knownCount; // listed ids this subscriber has been told about
+        private long framesSent;
+        private volatile boolean closed;
+
+        private Subscriber(OutputStream out) {
+            this.out = out;
+            this.frame = new ByteArrayOutputStream();
+            this.encoder = new DataOutputStream(frame);
+            this.dirty = new BitSet();
+            this.sending = new BitSet();
+            this.lastSent = new long[0];
+        }
+
+        // Conflation: a slow subscriber only accumulates ids, so it always gets the latest price once
+        private synchronized void markDirty(BitSet ids) {
+            dirty.or(ids);
+            notifyAll();
+        }
+
+        private void stream() throws IOException {
+            try {
+                synchronized (MarketDataFeed.this) {
+                    writeSnapshot();
+                    subscribers.add(this);
+                }
+                sendFrame();
+
+                while (!closed) {
+                    synchronized (this) {
+                        while (dirty.isEmpty() && !closed) {
+                            wait();
+                        }
+                        BitSet swap = sending;
+                        sending = dirty;
+                        dirty = swap;
+                    }
+                    if (closed) {
+                        break;
+                    }
+                    synchronized (MarketDataFeed.this) {
+                        writeDelta();
+                    }
+                    sendFrame();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+            }
+        }
+
+        private void sendFrame() throws IOException {
+            frame.writeTo(out);
+            out.flush();
+            frame.reset();
+            framesSent++;
+        }
+
+        private void writeSnapshot() throws IOException {
+            lastSent = latest.clone();
+            knownCount = listedCount;
+            encoder.writeByte(SNAPSHOT);
+            writeVarint(listedCount);
+            for (int i = 0; i < listedCount; i++) {
+                int id = listed[i];
+                writeVarint(id);
+                encoder.writeUTF(registry.getSymbol(id));
+                writeVarint(lastSent[id]);
+            }
+        }
+
+        private void writeDelta() throws IOException {
+            if (latest.length > lastSent.length) {
+                lastSent = Arrays.copyOf(lastSent, latest.length);
+            }
+            encoder.writeByte(DELTA);
+            writeVarint(currentTick);
+            writeVarint(listedCount - knownCount);
+            for (int i = knownCount; i < listedCount; i++) {
+                int id = listed[i];
+                writeVarint(id);
+                encoder.writeUTF(registry.getSymbol(id));
+                sending.set(id);
+            }
+            knownCount = listedCount;
+
+            writeVarint(sending.cardinality());
+            for (int id = sending.nextSetBit(0); id >= 0; id = sending.nextSetBit(id + 1)) {
+                writeVarint(id);
+                writeVarint(zigzag(latest[id] - lastSent[id]));
+                lastSent[id] = latest[id];
+            }
+            sending.clear();
+        }
+
+        private void writeVarint(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                encoder.writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            encoder.writeByte((int) value);
+        }
+
+        public long getFramesSent() {
+            return framesSent;
+        }
+
+        public void close() {
+            closed = true;
+            subscribers.remove(this);
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+} 
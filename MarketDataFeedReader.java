@@ -0,0 +1,93 @@
+import java.io.*;
+import java.util.*;
+
+public class MarketDataFeedReader {
+    private DataInputStream in;
+    private Map<String, Integer> ids; // symbol -> server id, in arrival order
+    private long[] prices; // price ticks by server id
+    private long lastTick;
+    private int lastChangeCount;
+
+    // Client side of MarketDataFeed: applies snapshot and delta frames to a local price board
+    public MarketDataFeedReader(InputStream in) {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+        this.ids = new LinkedHashMap<>();
+        this.prices = new long[64];
+    }
+
+    // Read and apply one frame; returns false at end of stream
+    public boolean readFrame() throws IOException {
+        int type = in.read();
+        if (type < 0) {
+            return false;
+        }
+        if (type == MarketDataFeed.SNAPSHOT) {
+            ids.clear();
+            int count = (int) readVarint();
+            for (int i = 0; i < count; i++) {
+                int id = addSymbol();
+                prices[id] = readVarint();
+            }
+            lastChangeCount = count;
+        } else if (type == MarketDataFeed.DELTA) {
+            lastTick = readVarint();
+            int newCount = (int) readVarint();
+            for (int i = 0; i < newCount; i++) {
+                addSymbol();
+            }
+            lastChangeCount = (int) readVarint();
+            for (int i = 0; i < lastChangeCount; i++) {
+                int id = (int) readVarint();
+                prices[id] += MarketDataFeed.unzigzag(readVarint());
+            }
+        } else {
+            throw new IOException("Unknown feed frame type: " + type);
+        }
+        return true;
+    }
+
+    private int addSymbol() throws IOException {
+        int id = (int) readVarint();
+        String symbol = in.readUTF();
+        if (id >= prices.length) {
+            prices = Arrays.copyOf(prices, Math.max(id + 1, prices.length * 2));
+        }
+        ids.put(symbol, id);
+        prices[id] = 0;
+        return id;
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    // Getters
+    public double getPrice(String symbol) {
+        Integer id = ids.get(symbol);
+        return id == null ? 0.0 : prices[id] / MarketDataFeed.PRICE_SCALE;
+    }
+
+    public Map<String, Double> getPrices() {
+        Map<String, Double> board = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : ids.entrySet()) {
+            board.put(entry.getKey(), prices[entry.getValue()] / MarketDataFeed.PRICE_SCALE);
+        }
+        return board;
+    }
+
+    public long getLastTick() {
+        return lastTick;
+    }
+
+    public int getLastChangeCount() {
+        return lastChangeCount;
+    }
+} 
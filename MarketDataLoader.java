@@ -0,0 +1,289 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class MarketDataLoader {
+    private static final long MIN_CHUNK_SIZE = 1 << 20; // not worth a thread below 1 MB
+    private static final long MAX_CHUNK_SIZE = Integer.MAX_VALUE; // one mapping per chunk
+    private static final int BOUNDARY_SCAN_SIZE = 4096;
+
+    // Load a universe from "symbol,price" lines into the market, returning the number of symbols.
+    // A header and malformed lines are skipped; the result counts the malformed ones.
+    public static LoadResult loadUniverse(String path, Market market) throws IOException {
+        long total = 0;
+        long skipped = 0;
+        for (ParsedChunk chunk : parseChunks(path, false)) {
+            for (int i = 0; i < chunk.size; i++) {
+                market.setPrice(chunk.symbolIds[i], chunk.prices[i]);
+            }
+            total += chunk.size;
+            skipped += chunk.skipped;
+        }
+        return new LoadResult(total, skipped);
+    }
+
+    // Load a price series into the market's history and move each symbol to its last price.
+    // CSV files use the tick format "timestamp,symbol,price"; other files the binary tick format.
+    public static LoadResult loadPriceHistory(String path, Market market) throws IOException {
+        if (!path.toLowerCase().endsWith(".csv")) {
+            return new LoadResult(loadBinaryHistory(path, market), 0);
+        }
+
+        long count = 0;
+        long skipped = 0;
+        for (ParsedChunk chunk : parseChunks(path, true)) {
+            for (int i = 0; i < chunk.size; i++) {
+                market.addHistory(chunk.symbolIds[i], chunk.timestamps[i], chunk.prices[i]);
+            }
+            count += chunk.size;
+            skipped += chunk.skipped;
+        }
+        return new LoadResult(count, skipped);
+    }
+
+    // Binary records are variable length, so they are streamed sequentially rather than chunked
+    private static long loadBinaryHistory(String path, Market market) throws IOException {
+        long count = 0;
+        try (TickReader reader = new BinaryTickReader(path)) {
+            Tick tick = new Tick();
+            while (reader.next(tick)) {
+                market.addHistory(tick.getSymbolId(), tick.getTimestamp(), tick.getPrice());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Split the file at line boundaries and parse each piece on its own thread, keeping file order
+    private static List<ParsedChunk> parseChunks(String path, boolean series) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            long[] boundaries = findBoundaries(channel);
+            int chunkCount = boundaries.length - 1;
+            if (chunkCount == 1) {
+                return Collections.singletonList(parseChunk(channel, boundaries[0], boundaries[1], series));
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(Math.min(chunkCount,
+                Runtime.getRuntime().availableProcessors()));
+            try {
+                List<Future<ParsedChunk>> futures = new ArrayList<>();
+                for (int i = 0; i < chunkCount; i++) {
+                    long start = boundaries[i];
+                    long end = boundaries[i + 1];
+                    futures.add(executor.submit(() -> parseChunk(channel, start, end, series)));
+                }
+
+                List<ParsedChunk> chunks = new ArrayList<>();
+                for (Future<ParsedChunk> future : futures) {
+                    chunks.add(future.get());
+                }
+                return chunks;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Loading " + path + " was interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IOException("Error loading " + path + ": " + e.getCause().getMessage(), e.getCause());
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
+    private static long[] findBoundaries(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int workers = Runtime.getRuntime().availableProcessors();
+        long chunkSize = Math.max(MIN_CHUNK_SIZE, (size + workers - 1) / workers);
+        chunkSize = Math.min(chunkSize, MAX_CHUNK_SIZE - BOUNDARY_SCAN_SIZE);
+
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        ByteBuffer scan = ByteBuffer.allocate(BOUNDARY_SCAN_SIZE);
+        long position = chunkSize;
+        while (position < size) {
+            long lineEnd = nextLineStart(channel, position, scan);
+            if (lineEnd >= size) {
+                break;
+            }
+            boundaries.add(lineEnd);
+            position = lineEnd + chunkSize;
+        }
+        boundaries.add(size);
+
+        long[] result = new long[boundaries.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = boundaries.get(i);
+        }
+        return result;
+    }
+
+    // Position just after the next '\n' at or after position (or the file size)
+    private static long nextLineStart(FileChannel channel, long position, ByteBuffer scan) throws IOException {
+        while (true) {
+            scan.clear();
+            int read = channel.read(scan, position);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (scan.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+
+    private static ParsedChunk parseChunk(FileChannel channel, long start, long end, boolean series) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        ParsedChunk chunk = new ParsedChunk(series);
+        int limit = buffer.limit();
+        int lineStart = 0;
+
+        // Symbols are looked up in the registry straight from the mapped bytes
+        SymbolRegistry registry = SymbolRegistry.getDefault();
+        AsciiSlice slice = new AsciiSlice(buffer);
+
+        // Series files are usually grouped by symbol, so reuse the last id while the bytes match
+        int lastId = -1;
+        int lastFrom = 0;
+        int lastTo = 0;
+
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int next = lineEnd + 1;
+            if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+
+            if (lineEnd == lineStart) {
+                lineStart = next; // blank line
+                continue;
+            }
+
+            int firstComma = indexOf(buffer, ',', lineStart, lineEnd);
+            int secondComma = firstComma < 0 ? -1 : indexOf(buffer, ',', firstComma + 1, lineEnd);
+            try {
+                if (series && secondComma > 0) {
+                    long timestamp = FastNumberParser.parseLong(buffer, lineStart, firstComma);
+                    double price = FastNumberParser.parseDouble(buffer, secondComma + 1, lineEnd);
+                    if (lastId < 0 || !sameBytes(buffer, lastFrom, lastTo, firstComma + 1, secondComma)) {
+                        lastId = registry.register(slice, firstComma + 1, secondComma);
+                        lastFrom = firstComma + 1;
+                        lastTo = secondComma;
+                    }
+                    chunk.add(lastId, timestamp, price);
+                } else if (!series && firstComma > lineStart) {
+                    int priceEnd = secondComma < 0 ? lineEnd : secondComma;
+                    double price = FastNumberParser.parseDouble(buffer, firstComma + 1, priceEnd);
+                    chunk.add(registry.register(slice, lineStart, firstComma), 0, price);
+                } else {
+                    chunk.skip(start == 0 && lineStart == 0);
+                }
+            } catch (IllegalArgumentException e) {
+                chunk.skip(start == 0 && lineStart == 0);
+            }
+            lineStart = next;
+        }
+        return chunk;
+    }
+
+    private static int indexOf(ByteBuffer buffer, char target, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean sameBytes(ByteBuffer buffer, int from, int to, int otherFrom, int otherTo) {
+        if (to - from != otherTo - otherFrom) {
+            return false;
+        }
+        for (int i = 0; i < to - from; i++) {
+            if (buffer.get(from + i) != buffer.get(otherFrom + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The mapped bytes seen as characters, so the registry can read symbols in place
+    private static class AsciiSlice implements CharSequence {
+        private ByteBuffer buffer;
+
+        AsciiSlice(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int length() {
+            return buffer.limit();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buffer.get(index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return FastNumberParser.asciiString(buffer, start, end);
+        }
+
+        @Override
+        public String toString() {
+            return FastNumberParser.asciiString(buffer, 0, buffer.limit());
+        }
+    }
+
+    // Parsed rows of one chunk in primitive arrays
+    private static class ParsedChunk {
+        private int[] symbolIds;
+        private long[] timestamps; // only for series
+        private double[] prices;
+        private int size;
+        private long skipped; // malformed lines
+
+        ParsedChunk(boolean series) {
+            this.symbolIds = new int[1024];
+            this.timestamps = series ? new long[1024] : null;
+            this.prices = new double[1024];
+        }
+
+        void add(int symbolId, long timestamp, double price) {
+            if (size == symbolIds.length) {
+                int capacity = size * 2;
+                symbolIds = Arrays.copyOf(symbolIds, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                if (timestamps != null) {
+                    timestamps = Arrays.copyOf(timestamps, capacity);
+                }
+            }
+            symbolIds[size] = symbolId;
+            if (timestamps != null) {
+                timestamps[size] = timestamp;
+            }
+            prices[size] = price;
+            size++;
+        }
+
+        // The first line of the file is taken to be a header when it does not parse
+        void skip(boolean header) {
+            if (!header) {
+                skipped++;
+            }
+        }
+    }
+} 
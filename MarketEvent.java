@@ -0,0 +1,95 @@
+public class MarketEvent {
+    private EventType type;
+    private long sequence;
+    private long tickNumber;
+    private boolean lastInTick;
+    private int symbolId; // SymbolRegistry id
+    private String symbol;
+    private double price;
+    private double previousPrice;
+    private int quantity;
+    private Transaction.TransactionType tradeType;
+
+    public enum EventType {
+        TICK, TRADE
+    }
+
+    // Events are preallocated in the ring and overwritten in place by the bus
+    MarketEvent() {
+    }
+
+    void setTick(long sequence, long tickNumber, boolean lastInTick, Stock stock) {
+        this.type = EventType.TICK;
+        this.sequence = sequence;
+        this.tickNumber = tickNumber;
+        this.lastInTick = lastInTick;
+        this.symbolId = stock.getSymbolId();
+        this.symbol = stock.getSymbol();
+        this.price = stock.getPrice();
+        this.previousPrice = stock.getPreviousPrice();
+        this.quantity = 0;
+        this.tradeType = null;
+    }
+
+    void setTrade(long sequence, Transaction transaction) {
+        this.type = EventType.TRADE;
+        this.sequence = sequence;
+        this.tickNumber = 0;
+        this.lastInTick = false;
+        this.symbolId = transaction.getSymbolId();
+        this.symbol = transaction.getStockSymbol();
+        this.price = transaction.getPrice();
+        this.previousPrice = transaction.getPrice();
+        this.quantity = transaction.getQuantity();
+        this.tradeType = transaction.getType();
+    }
+
+    // Getters
+    public EventType getType() {
+        return type;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTickNumber() {
+        return tickNumber;
+    }
+
+    public boolean isLastInTick() {
+        return lastInTick;
+    }
+
+    public int getSymbolId() {
+        return symbolId;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public double getPreviousPrice() {
+        return previousPrice;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public Transaction.TransactionType getTradeType() {
+        return tradeType;
+    }
+
+    @Override
+    public String toString() {
+        if (type == EventType.TRADE) {
+            return String.format("#%d TRADE %s %d %s @ $%.2f", sequence, tradeType, quantity, symbol, price);
+        }
+        return String.format("#%d TICK %d %s $%.2f -> $%.2f", sequence, tickNumber, symbol, previousPrice, price);
+    }
+} 
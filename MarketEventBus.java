@@ -0,0 +1,232 @@
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+public class MarketEventBus {
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final long PRODUCER_WAIT_NANOS = 1_000L;
+    private static final long CONSUMER_WAIT_NANOS = 100_000L;
+
+    private final MarketEvent[] ring;
+    private final int mask;
+    private final AtomicLong cursor; // last sequence published along with all before it
+    private final AtomicLongArray published; // sequence last written to each slot, -1 when never
+    private final List<Subscription> subscriptions;
+    private final Queue<Transaction> deferredTrades; // trades published from listener threads
+    private final ThreadLocal<Subscription> currentSubscription; // set on listener threads
+    private long nextSequence; // guarded by this
+    private long tickCount; // guarded by this
+
+    public MarketEventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MarketEventBus(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.ring = new MarketEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new MarketEvent();
+        }
+        this.mask = capacity - 1;
+        this.cursor = new AtomicLong(-1);
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+        this.subscriptions = new CopyOnWriteArrayList<>();
+        this.deferredTrades = new ConcurrentLinkedQueue<>();
+        this.currentSubscription = new ThreadLocal<>();
+    }
+
+    // Subscribe a listener; it receives every event published from now on on its own thread
+    public synchronized Subscription subscribe(String name, MarketListener listener) {
+        Subscription subscription = new Subscription(name, listener, cursor.get());
+        subscriptions.add(subscription);
+        subscription.start();
+        return subscription;
+    }
+
+    // Publish one market update as a batch of tick events for the first count stocks.
+    // Not allowed from a listener thread: a full ring would wait on that listener itself.
+    public void publishTicks(Stock[] stocks, int count) {
+        if (currentSubscription.get() != null) {
+            throw new IllegalStateException("Ticks cannot be published from a market listener");
+        }
+        long first;
+        long tickNumber;
+        synchronized (this) {
+            first = nextSequence;
+            nextSequence += count;
+            tickNumber = ++tickCount;
+        }
+        for (int i = 0; i < count; i++) {
+            long sequence = first + i;
+            awaitCapacity(sequence);
+            ring[(int) (sequence & mask)].setTick(sequence, tickNumber, i == count - 1, stocks[i]);
+            publish(sequence);
+        }
+    }
+
+    // Publish a completed trade. Trades made by a listener (e.g. a strategy reacting to a tick)
+    // are queued and moved into the ring by the listener threads once there is room.
+    public void publishTrade(Transaction transaction) {
+        if (currentSubscription.get() != null) {
+            deferredTrades.add(transaction);
+            return;
+        }
+        long sequence;
+        synchronized (this) {
+            sequence = nextSequence++;
+        }
+        awaitCapacity(sequence);
+        ring[(int) (sequence & mask)].setTrade(sequence, transaction);
+        publish(sequence);
+    }
+
+    // Move queued listener trades into the ring without ever waiting for space
+    private void drainDeferredTrades() {
+        while (!deferredTrades.isEmpty()) {
+            long sequence;
+            Transaction transaction;
+            synchronized (this) {
+                if (nextSequence - ring.length > wrapLimit()) {
+                    return; // no room yet; try again after the next batch
+                }
+                transaction = deferredTrades.poll();
+                if (transaction == null) {
+                    return;
+                }
+                sequence = nextSequence++;
+            }
+            ring[(int) (sequence & mask)].setTrade(sequence, transaction);
+            publish(sequence);
+        }
+    }
+
+    // Back-pressure, outside the bus lock: never overwrite a slot the slowest subscriber still needs
+    private void awaitCapacity(long sequence) {
+        long wrapPoint = sequence - ring.length;
+        while (wrapPoint > wrapLimit()) {
+            LockSupport.parkNanos(PRODUCER_WAIT_NANOS);
+        }
+    }
+
+    // Highest sequence whose slot may be reused: consumed by every subscriber and passed by the cursor
+    private long wrapLimit() {
+        return Math.min(minimumSubscriberSequence(), cursor.get());
+    }
+
+    // Mark the slot written, then move the cursor over every contiguous written slot. Publishers
+    // never wait for each other: whoever fills the last gap advances the cursor past the others.
+    private void publish(long sequence) {
+        published.set((int) (sequence & mask), sequence);
+        long current = cursor.get();
+        while (published.get((int) ((current + 1) & mask)) == current + 1) {
+            if (cursor.compareAndSet(current, current + 1)) {
+                current++;
+            } else {
+                current = cursor.get();
+            }
+        }
+    }
+
+    private long minimumSubscriberSequence() {
+        long minimum = Long.MAX_VALUE;
+        for (Subscription subscription : subscriptions) {
+            minimum = Math.min(minimum, subscription.sequence.get());
+        }
+        return minimum;
+    }
+
+    public long getPublishedSequence() {
+        return cursor.get();
+    }
+
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    // Stop all subscriber threads
+    public void shutdown() {
+        for (Subscription subscription : subscriptions) {
+            subscription.close();
+        }
+    }
+
+    public class Subscription implements Runnable {
+        private final String name;
+        private final MarketListener listener;
+        private final AtomicLong sequence; // last sequence this subscriber has consumed
+        private volatile boolean running;
+        private Thread thread;
+
+        private Subscription(String name, MarketListener listener, long startSequence) {
+            this.name = name;
+            this.listener = listener;
+            this.sequence = new AtomicLong(startSequence);
+            this.running = true;
+        }
+
+        private void start() {
+            thread = new Thread(this, "market-listener-" + name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        @Override
+        public void run() {
+            currentSubscription.set(this);
+            try {
+                while (running) {
+                    long next = sequence.get() + 1;
+                    long available = cursor.get();
+                    if (available < next) {
+                        drainDeferredTrades();
+                        LockSupport.parkNanos(CONSUMER_WAIT_NANOS);
+                        continue;
+                    }
+
+                    // Deliver everything published so far as one batch, then release the slots
+                    for (long current = next; current <= available; current++) {
+                        try {
+                            listener.onEvent(ring[(int) (current & mask)], current == available);
+                        } catch (RuntimeException e) {
+                            System.err.println("Error in market listener " + name + ": " + e.getMessage());
+                        }
+                    }
+                    sequence.set(available);
+                    drainDeferredTrades();
+                }
+            } finally {
+                // Also on an Error, so a dead listener never holds back publishers
+                close();
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getSequence() {
+            return sequence.get();
+        }
+
+        // Stop receiving events; the publisher no longer waits for this subscriber
+        public void close() {
+            running = false;
+            subscriptions.remove(this);
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+} 
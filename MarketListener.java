@@ -0,0 +1,5 @@
+public interface MarketListener {
+    // Called on the subscriber's own thread. The event is reused by the bus once this returns,
+    // so copy anything you need to keep. endOfBatch is true for the last event currently available.
+    void onEvent(MarketEvent event, boolean endOfBatch);
+} 
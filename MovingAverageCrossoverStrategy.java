@@ -0,0 +1,79 @@
+import java.util.*;
+
+public class MovingAverageCrossoverStrategy implements TradingStrategy {
+    private int shortWindow;
+    private int longWindow;
+    private int tradeQuantity;
+    private SymbolState[] states; // indexed by symbol id
+
+    // Buys tradeQuantity shares when the short average crosses above the long one, sells all on the way down
+    public MovingAverageCrossoverStrategy(int shortWindow, int longWindow, int tradeQuantity) {
+        if (shortWindow <= 0 || longWindow <= shortWindow || tradeQuantity <= 0) {
+            throw new IllegalArgumentException("Need 0 < shortWindow < longWindow and a positive quantity");
+        }
+        this.shortWindow = shortWindow;
+        this.longWindow = longWindow;
+        this.tradeQuantity = tradeQuantity;
+        this.states = new SymbolState[0];
+    }
+
+    @Override
+    public void onTick(Tick tick, Market market, Portfolio portfolio) {
+        int symbolId = tick.getSymbolId();
+        if (symbolId >= states.length) {
+            states = Arrays.copyOf(states, Math.max(symbolId + 1, states.length * 2));
+        }
+        SymbolState state = states[symbolId];
+        if (state == null) {
+            state = new SymbolState(longWindow);
+            states[symbolId] = state;
+        }
+        state.add(tick.getPrice(), shortWindow);
+        if (state.count < longWindow) {
+            return;
+        }
+
+        boolean above = state.shortSum / shortWindow > state.longSum / longWindow;
+        if (above && !state.wasAbove) {
+            portfolio.buyStock(symbolId, tradeQuantity, tick.getPrice());
+        } else if (!above && state.wasAbove) {
+            int held = portfolio.getShareQuantity(symbolId);
+            if (held > 0) {
+                portfolio.sellStock(symbolId, held, tick.getPrice());
+            }
+        }
+        state.wasAbove = above;
+    }
+
+    // Rolling sums over a ring of the last longWindow prices
+    private static class SymbolState {
+        private double[] window;
+        private long count;
+        private double shortSum;
+        private double longSum;
+        private boolean wasAbove;
+
+        SymbolState(int longWindow) {
+            this.window = new double[longWindow];
+        }
+
+        void add(double price, int shortWindow) {
+            int size = window.length;
+            if (count >= shortWindow) {
+                shortSum -= window[(int) ((count - shortWindow) % size)];
+            }
+            if (count >= size) {
+                longSum -= window[(int) (count % size)];
+            }
+            window[(int) (count % size)] = price;
+            shortSum += price;
+            longSum += price;
+            count++;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MA crossover (%d/%d, %d shares)", shortWindow, longWindow, tradeQuantity);
+    }
+} 
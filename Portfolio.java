@@ -1,68 +1,177 @@
 import java.util.*;
 
 public class Portfolio {
-    private Map<String, Integer> holdings; // stock symbol -> quantity
     private double cashBalance;
     private List<Transaction> transactionHistory;
     private double initialCash;
+    private MarketEventBus eventBus;
+    private SymbolRegistry registry;
+    private IntObjectMap<Position> positions; // symbol registry id -> lots and cost basis
+    private CostBasisMethod costBasisMethod;
+    private double realizedProfitLoss;
+    private PortfolioAnalytics analytics;
 
     public Portfolio(double initialCash) {
-        this.holdings = new HashMap<>();
+        this(initialCash, CostBasisMethod.FIFO);
+    }
+
+    public Portfolio(double initialCash, CostBasisMethod costBasisMethod) {
         this.cashBalance = initialCash;
         this.initialCash = initialCash;
         this.transactionHistory = new ArrayList<>();
+        this.registry = SymbolRegistry.getDefault();
+        this.positions = new IntObjectMap<>();
+        this.costBasisMethod = costBasisMethod;
+        this.analytics = new PortfolioAnalytics(this);
     }
 
     // Buy stock
     public boolean buyStock(String symbol, int quantity, double price) {
+        return buyStock(registry.register(symbol), quantity, price);
+    }
+
+    // Buy stock by symbol registry id
+    public boolean buyStock(int symbolId, int quantity, double price) {
+        Transaction transaction = recordBuy(symbolId, quantity, price);
+        if (transaction == null) {
+            return false;
+        }
+        publishTrade(transaction);
+        return true;
+    }
+
+    // Apply a purchase without publishing it; returns null if funds are insufficient.
+    // Callers that lock the portfolio publish the trade after releasing the lock.
+    Transaction recordBuy(int symbolId, int quantity, double price) {
         double totalCost = quantity * price;
         
         if (totalCost > cashBalance) {
-            return false; // Insufficient funds
+            return null; // Insufficient funds
         }
 
         // Update holdings
-        holdings.put(symbol, holdings.getOrDefault(symbol, 0) + quantity);
+        addToPosition(symbolId, quantity, price);
         
         // Update cash balance
         cashBalance -= totalCost;
         
         // Record transaction
-        Transaction transaction = new Transaction(symbol, quantity, price, Transaction.TransactionType.BUY);
+        Transaction transaction = new Transaction(symbolId, quantity, price, Transaction.TransactionType.BUY);
         transactionHistory.add(transaction);
         
-        return true;
+        return transaction;
     }
 
     // Sell stock
     public boolean sellStock(String symbol, int quantity, double price) {
-        int currentQuantity = holdings.getOrDefault(symbol, 0);
+        int symbolId = registry.idOf(symbol);
+        return symbolId >= 0 && sellStock(symbolId, quantity, price);
+    }
+
+    // Sell stock by symbol registry id
+    public boolean sellStock(int symbolId, int quantity, double price) {
+        Transaction transaction = recordSell(symbolId, quantity, price);
+        if (transaction == null) {
+            return false;
+        }
+        publishTrade(transaction);
+        return true;
+    }
+
+    // Apply a sale without publishing it; returns null if there are not enough shares
+    Transaction recordSell(int symbolId, int quantity, double price) {
+        Position position = getPosition(symbolId);
+        int currentQuantity = position == null ? 0 : position.getQuantity();
         
         if (quantity > currentQuantity) {
-            return false; // Insufficient shares
+            return null; // Insufficient shares
         }
 
         // Update holdings
-        if (currentQuantity == quantity) {
-            holdings.remove(symbol);
-        } else {
-            holdings.put(symbol, currentQuantity - quantity);
+        realizedProfitLoss += position.sell(quantity, price, costBasisMethod);
+        if (position.getQuantity() == 0) {
+            positions.remove(symbolId);
         }
+        analytics.invalidate(symbolId);
         
         // Update cash balance
         double totalValue = quantity * price;
         cashBalance += totalValue;
         
         // Record transaction
-        Transaction transaction = new Transaction(symbol, quantity, price, Transaction.TransactionType.SELL);
+        Transaction transaction = new Transaction(symbolId, quantity, price, Transaction.TransactionType.SELL);
         transactionHistory.add(transaction);
         
-        return true;
+        return transaction;
+    }
+
+    // Restore a saved holding at its cost without touching cash or history
+    public void restorePosition(String symbol, int quantity, double averageCost) {
+        addToPosition(registry.register(symbol), quantity, averageCost);
+    }
+
+    private void addToPosition(int symbolId, int quantity, double price) {
+        Position position = getPosition(symbolId);
+        if (position == null) {
+            position = new Position(registry.getSymbol(symbolId));
+            positions.put(symbolId, position);
+        }
+        position.buy(quantity, price);
+        analytics.invalidate(symbolId);
+    }
+
+    // Release the portfolio from the market: its analytics stop watching stock prices.
+    // Call this before dropping a portfolio that has been refreshed against a live market.
+    public void close() {
+        analytics.close();
+    }
+
+    // Publish trades to subscribers of the given bus
+    public void setEventBus(MarketEventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    // May wait for room on the bus, so never call it while holding a lock
+    void publishTrade(Transaction transaction) {
+        if (eventBus != null) {
+            eventBus.publishTrade(transaction);
+        }
     }
 
     // Get current holdings
     public Map<String, Integer> getHoldings() {
-        return new HashMap<>(holdings);
+        Map<String, Integer> holdings = new HashMap<>();
+        for (int slot = 0; slot < positions.capacity(); slot++) {
+            if (positions.keyAt(slot) >= 0) {
+                Position position = positions.valueAt(slot);
+                holdings.put(position.getSymbol(), position.getQuantity());
+            }
+        }
+        return holdings;
+    }
+
+    // Get the position (lots and cost basis) for a stock, or null if none is held
+    public Position getPosition(String symbol) {
+        return getPosition(registry.idOf(symbol));
+    }
+
+    public Position getPosition(int symbolId) {
+        return symbolId >= 0 ? positions.get(symbolId) : null;
+    }
+
+    public CostBasisMethod getCostBasisMethod() {
+        return costBasisMethod;
+    }
+
+    // Get profit/loss locked in by sales
+    public double getRealizedProfitLoss() {
+        return realizedProfitLoss;
+    }
+
+    // Get cached holdings analytics, refreshed for positions that traded or moved in price
+    public PortfolioAnalytics getAnalytics(Market market) {
+        analytics.refresh(market);
+        return analytics;
     }
 
     // Get cash balance
@@ -75,17 +184,38 @@ public class Portfolio {
         return new ArrayList<>(transactionHistory);
     }
 
+    // Get number of recorded transactions
+    public int getTransactionCount() {
+        return transactionHistory.size();
+    }
+
+    // Calculate total portfolio value against live market prices, without copying market data
+    public double getTotalPortfolioValue(Market market) {
+        double totalValue = cashBalance;
+
+        for (int slot = 0; slot < positions.capacity(); slot++) {
+            int symbolId = positions.keyAt(slot);
+            Stock stock = symbolId >= 0 ? market.getStock(symbolId) : null;
+            if (stock != null) {
+                totalValue += positions.valueAt(slot).getQuantity() * stock.getPrice();
+            }
+        }
+
+        return totalValue;
+    }
+
     // Calculate total portfolio value
     public double getTotalPortfolioValue(Map<String, Stock> marketData) {
         double totalValue = cashBalance;
         
-        for (Map.Entry<String, Integer> entry : holdings.entrySet()) {
-            String symbol = entry.getKey();
-            int quantity = entry.getValue();
-            
-            Stock stock = marketData.get(symbol);
+        for (int slot = 0; slot < positions.capacity(); slot++) {
+            Position position = positions.valueAt(slot);
+            if (position == null) {
+                continue;
+            }
+            Stock stock = marketData.get(position.getSymbol());
             if (stock != null) {
-                totalValue += quantity * stock.getPrice();
+                totalValue += position.getQuantity() * stock.getPrice();
             }
         }
         
@@ -130,33 +260,43 @@ public class Portfolio {
 
     // Check if user has shares of a stock
     public boolean hasShares(String symbol) {
-        return holdings.containsKey(symbol) && holdings.get(symbol) > 0;
+        return getShareQuantity(symbol) > 0;
     }
 
     // Get quantity of shares for a stock
     public int getShareQuantity(String symbol) {
-        return holdings.getOrDefault(symbol, 0);
+        return getShareQuantity(registry.idOf(symbol));
+    }
+
+    public int getShareQuantity(int symbolId) {
+        Position position = getPosition(symbolId);
+        return position == null ? 0 : position.getQuantity();
     }
 
     // Get portfolio summary as string
-    public String getPortfolioSummary(Map<String, Stock> marketData) {
+    public String getPortfolioSummary(Market market) {
+        PortfolioAnalytics current = getAnalytics(market);
+        double totalValue = cashBalance + current.getHoldingsValue();
+        double profitLoss = totalValue - initialCash;
+        double percentage = initialCash == 0 ? 0 : (profitLoss / initialCash) * 100;
+
         StringBuilder summary = new StringBuilder();
         summary.append("--- Portfolio Summary ---\n");
         summary.append("Cash: ").append(getFormattedCashBalance()).append("\n");
-        summary.append("Total Portfolio Value: ").append(getFormattedTotalValue(marketData)).append("\n");
-        summary.append("Profit/Loss: ").append(getFormattedProfitLoss(marketData))
-               .append(" (").append(getFormattedProfitLossPercentage(marketData)).append(")\n\n");
+        summary.append("Total Portfolio Value: ").append(String.format("$%.2f", totalValue)).append("\n");
+        summary.append("Profit/Loss: ").append(PortfolioAnalytics.formatSigned(profitLoss))
+               .append(" (").append(String.format("%s%.2f%%", percentage >= 0 ? "+" : "", percentage)).append(")\n");
+        summary.append("Realized: ").append(PortfolioAnalytics.formatSigned(realizedProfitLoss))
+               .append(", Unrealized: ").append(PortfolioAnalytics.formatSigned(current.getUnrealizedProfitLoss()))
+               .append("\n\n");
         
-        if (!holdings.isEmpty()) {
+        if (!positions.isEmpty()) {
             summary.append("Holdings:\n");
-            for (Map.Entry<String, Integer> entry : holdings.entrySet()) {
-                String symbol = entry.getKey();
-                int quantity = entry.getValue();
-                Stock stock = marketData.get(symbol);
-                if (stock != null) {
-                    summary.append(String.format("  %s: %d shares @ %s\n", 
-                        symbol, quantity, stock.getFormattedPrice()));
-                }
+            current.appendHoldings(summary);
+            summary.append("\nSectors:\n");
+            for (Map.Entry<String, Double> entry : current.getSectorValues().entrySet()) {
+                double weight = totalValue == 0 ? 0 : entry.getValue() / totalValue * 100;
+                summary.append(String.format("  %s: $%.2f (%.1f%%)\n", entry.getKey(), entry.getValue(), weight));
             }
         } else {
             summary.append("No stock holdings.\n");
@@ -0,0 +1,222 @@
+import java.util.*;
+
+public class PortfolioAnalytics {
+    private Portfolio portfolio;
+    private SymbolRegistry registry;
+    private Market market; // market the cached prices were read from
+    private Map<String, Entry> cache; // symbol -> cached position analytics, in display order
+    private IntObjectMap<Entry> entries; // same entries, by symbol registry id
+    // Sets of symbol ids (values are TRUE); sparse, since a portfolio holds few of the listed symbols
+    private IntObjectMap<Boolean> traded; // traded since the last refresh
+    private IntObjectMap<Boolean> unlisted; // held with no stock in the market yet
+    private IntObjectMap<Boolean> moved; // price changed since the last refresh; guarded by movedLock
+    private IntObjectMap<Boolean> pending; // scratch set swapped with moved on refresh
+    private final Object movedLock = new Object();
+    private final Stock.PriceWatcher watcher = this::priceMoved;
+    private Map<String, Double> sectorValues;
+    private Map<String, Integer> sectorCounts; // positions per sector, to drop empty sectors
+    private double holdingsValue;
+    private double unrealizedProfitLoss;
+    private long recomputations;
+
+    // Derived numbers are cached per position and only recomputed when that position trades
+    // or its stock reports a price change, so a refresh does O(changed positions) work.
+    PortfolioAnalytics(Portfolio portfolio) {
+        this.portfolio = portfolio;
+        this.registry = SymbolRegistry.getDefault();
+        this.cache = new TreeMap<>();
+        this.entries = new IntObjectMap<>();
+        this.traded = new IntObjectMap<>();
+        this.unlisted = new IntObjectMap<>();
+        this.moved = new IntObjectMap<>();
+        this.pending = new IntObjectMap<>();
+        this.sectorValues = new TreeMap<>();
+        this.sectorCounts = new HashMap<>();
+    }
+
+    void invalidate(int symbolId) {
+        traded.put(symbolId, Boolean.TRUE);
+    }
+
+    // Called by watched stocks, possibly from the market's update thread
+    private void priceMoved(Stock stock) {
+        synchronized (movedLock) {
+            moved.put(stock.getSymbolId(), Boolean.TRUE);
+        }
+    }
+
+    // Bring cached analytics up to date with the given market
+    public void refresh(Market market) {
+        IntObjectMap<Boolean> changed;
+        synchronized (movedLock) {
+            changed = moved;
+            moved = pending;
+        }
+        addAll(changed, traded);
+        addAll(changed, unlisted);
+        traded.clear();
+        if (market != this.market) {
+            this.market = market;
+            for (Entry entry : cache.values()) {
+                changed.put(entry.symbolId, Boolean.TRUE);
+            }
+        }
+
+        for (int slot = 0; slot < changed.capacity(); slot++) {
+            int id = changed.keyAt(slot);
+            if (id >= 0) {
+                recompute(id);
+            }
+        }
+        changed.clear();
+        pending = changed;
+    }
+
+    private static void addAll(IntObjectMap<Boolean> target, IntObjectMap<Boolean> source) {
+        for (int slot = 0; slot < source.capacity(); slot++) {
+            if (source.keyAt(slot) >= 0) {
+                target.put(source.keyAt(slot), Boolean.TRUE);
+            }
+        }
+    }
+
+    // Stop watching stocks, so the market no longer holds on to this portfolio. A later
+    // refresh watches them again.
+    void close() {
+        for (Entry entry : cache.values()) {
+            entry.watch(null);
+        }
+        market = null;
+        synchronized (movedLock) {
+            moved.clear();
+        }
+    }
+
+    private void recompute(int symbolId) {
+        String symbol = registry.getSymbol(symbolId);
+        Position position = portfolio.getPosition(symbolId);
+        Entry entry = entries.get(symbolId);
+        if (position == null) {
+            if (entry != null) {
+                entry.apply(-1);
+                entry.watch(null);
+                entries.remove(symbolId);
+                cache.remove(symbol);
+            }
+            unlisted.remove(symbolId);
+            return;
+        }
+        if (entry == null) {
+            entry = new Entry(symbolId, symbol);
+            entries.put(symbolId, entry);
+            cache.put(symbol, entry);
+        } else {
+            entry.apply(-1);
+        }
+
+        Stock stock = market.getStock(symbolId);
+        entry.watch(stock);
+        if (stock == null) {
+            unlisted.put(symbolId, Boolean.TRUE);
+        } else {
+            unlisted.remove(symbolId);
+        }
+        double price = stock != null ? stock.getPrice() : 0.0;
+        entry.sector = stock != null ? stock.getSector() : Stock.UNKNOWN_SECTOR;
+        entry.marketValue = position.getQuantity() * price;
+        entry.unrealizedProfitLoss = position.getUnrealizedProfitLoss(price);
+        entry.summaryLine = stock == null ? null : String.format("  %s: %d shares @ %s (avg cost $%.2f, unrealized %s)\n",
+            symbol, position.getQuantity(), stock.getFormattedPrice(), position.getAverageCost(),
+            formatSigned(entry.unrealizedProfitLoss));
+        entry.apply(1);
+        recomputations++;
+    }
+
+    static String formatSigned(double amount) {
+        String sign = amount >= 0 ? "+" : "";
+        return String.format("%s$%.2f", sign, amount);
+    }
+
+    // Getters (valid as of the last refresh)
+    public double getHoldingsValue() {
+        return holdingsValue;
+    }
+
+    public double getUnrealizedProfitLoss() {
+        return unrealizedProfitLoss;
+    }
+
+    public double getMarketValue(String symbol) {
+        Entry entry = cache.get(symbol);
+        return entry == null ? 0.0 : entry.marketValue;
+    }
+
+    public double getUnrealizedProfitLoss(String symbol) {
+        Entry entry = cache.get(symbol);
+        return entry == null ? 0.0 : entry.unrealizedProfitLoss;
+    }
+
+    // Share of total portfolio value (cash included) held in the symbol
+    public double getWeight(String symbol) {
+        double total = portfolio.getCashBalance() + holdingsValue;
+        return total == 0 ? 0.0 : getMarketValue(symbol) / total;
+    }
+
+    public Map<String, Double> getSectorValues() {
+        return new TreeMap<>(sectorValues);
+    }
+
+    public long getRecomputations() {
+        return recomputations;
+    }
+
+    // Append the cached per-position summary lines
+    void appendHoldings(StringBuilder summary) {
+        for (Entry entry : cache.values()) {
+            if (entry.summaryLine != null) {
+                summary.append(entry.summaryLine);
+            }
+        }
+    }
+
+    private class Entry {
+        private int symbolId;
+        private String symbol;
+        private Stock stock; // watched for price changes
+        private String sector;
+        private double marketValue;
+        private double unrealizedProfitLoss;
+        private String summaryLine;
+
+        Entry(int symbolId, String symbol) {
+            this.symbolId = symbolId;
+            this.symbol = symbol;
+        }
+
+        void watch(Stock newStock) {
+            if (newStock != stock) {
+                if (stock != null) {
+                    stock.removeWatcher(watcher);
+                }
+                if (newStock != null) {
+                    newStock.addWatcher(watcher);
+                }
+                stock = newStock;
+            }
+        }
+
+        // Add (sign 1) or remove (sign -1) this entry's contribution to the running totals
+        void apply(int sign) {
+            holdingsValue += sign * marketValue;
+            PortfolioAnalytics.this.unrealizedProfitLoss += sign * unrealizedProfitLoss;
+            int count = sectorCounts.getOrDefault(sector, 0) + sign;
+            if (count == 0) {
+                sectorCounts.remove(sector);
+                sectorValues.remove(sector);
+            } else {
+                sectorCounts.put(sector, count);
+                sectorValues.put(sector, sectorValues.getOrDefault(sector, 0.0) + sign * marketValue);
+            }
+        }
+    }
+} 
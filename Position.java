@@ -0,0 +1,103 @@
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+public class Position {
+    private String symbol;
+    private int quantity;
+    private double costBasis; // total cost of the shares still held
+    private double realizedProfitLoss;
+    private Deque<Lot> lots; // oldest first
+
+    public Position(String symbol) {
+        this.symbol = symbol;
+        this.lots = new ArrayDeque<>();
+    }
+
+    // Add a purchase lot
+    public void buy(int quantity, double price) {
+        lots.addLast(new Lot(quantity, price));
+        this.quantity += quantity;
+        this.costBasis += quantity * price;
+    }
+
+    // Remove shares and return the profit/loss realized by this sale
+    public double sell(int quantity, double price, CostBasisMethod method) {
+        if (quantity > this.quantity) {
+            throw new IllegalArgumentException("Cannot sell " + quantity + " of " + this.quantity + " shares");
+        }
+
+        double cost;
+        if (method == CostBasisMethod.AVERAGE_COST) {
+            cost = quantity * getAverageCost();
+            int remaining = this.quantity - quantity;
+            double average = getAverageCost();
+            lots.clear();
+            if (remaining > 0) {
+                lots.addLast(new Lot(remaining, average));
+            }
+        } else {
+            cost = 0;
+            int toSell = quantity;
+            while (toSell > 0) {
+                Lot lot = lots.peekFirst();
+                int used = Math.min(toSell, lot.quantity);
+                cost += used * lot.price;
+                lot.quantity -= used;
+                toSell -= used;
+                if (lot.quantity == 0) {
+                    lots.removeFirst();
+                }
+            }
+        }
+
+        this.quantity -= quantity;
+        this.costBasis = this.quantity == 0 ? 0.0 : this.costBasis - cost;
+        double realized = quantity * price - cost;
+        realizedProfitLoss += realized;
+        return realized;
+    }
+
+    // Getters
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public double getCostBasis() {
+        return costBasis;
+    }
+
+    public double getAverageCost() {
+        return quantity == 0 ? 0.0 : costBasis / quantity;
+    }
+
+    public double getRealizedProfitLoss() {
+        return realizedProfitLoss;
+    }
+
+    public double getUnrealizedProfitLoss(double marketPrice) {
+        return quantity * marketPrice - costBasis;
+    }
+
+    public int getLotCount() {
+        return lots.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d shares, avg cost $%.2f", symbol, quantity, getAverageCost());
+    }
+
+    private static class Lot {
+        private int quantity;
+        private double price;
+
+        Lot(int quantity, double price) {
+            this.quantity = quantity;
+            this.price = price;
+        }
+    }
+} 
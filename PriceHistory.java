@@ -0,0 +1,53 @@
+import java.util.Arrays;
+
+public class PriceHistory {
+    private static final int INITIAL_CAPACITY = 16;
+    private String symbol;
+    private long[] timestamps;
+    private double[] prices;
+    private int size;
+
+    public PriceHistory(String symbol) {
+        this.symbol = symbol;
+        this.timestamps = new long[INITIAL_CAPACITY];
+        this.prices = new double[INITIAL_CAPACITY];
+    }
+
+    // Append an observation; callers supply them in time order
+    public void add(long timestamp, double price) {
+        if (size == prices.length) {
+            int capacity = size * 2;
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+        }
+        timestamps[size] = timestamp;
+        prices[size] = price;
+        size++;
+    }
+
+    // Getters
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getTimestamp(int index) {
+        return timestamps[index];
+    }
+
+    public double getPrice(int index) {
+        return prices[index];
+    }
+
+    public double getLatestPrice() {
+        return size == 0 ? 0.0 : prices[size - 1];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d prices", symbol, size);
+    }
+} 
@@ -0,0 +1,12 @@
+import java.util.random.RandomGenerator;
+
+public interface PriceModel {
+    // Advance the first count prices by one step, in place. Models keep no per-call state,
+    // so one instance can be shared by several threads as long as each passes its own random.
+    void step(double[] prices, int count, RandomGenerator random);
+
+    // Whether the model can step a universe of count assets
+    default boolean supports(int count) {
+        return true;
+    }
+} 
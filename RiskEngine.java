@@ -0,0 +1,175 @@
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
+
+public class RiskEngine {
+    private static final int DEFAULT_PATHS = 10000;
+    private static final int DEFAULT_STEPS = 1;
+    private static final double DEFAULT_CONFIDENCE = 0.99;
+    private static final double TRADING_DAY = 1.0 / 252;
+
+    private PriceModel priceModel;
+    private String[] assetSymbols; // symbol of each model asset, or null to step whatever is held
+    private int paths;
+    private int steps;
+    private double confidence;
+    private int workers;
+    private ExecutorService executor;
+    private SplittableRandom seedSource;
+
+    // One-day horizon under a driftless 30% vol GBM
+    public RiskEngine() {
+        this(new GeometricBrownianMotionModel(0.0, 0.30, TRADING_DAY), DEFAULT_PATHS, DEFAULT_STEPS,
+            DEFAULT_CONFIDENCE, System.nanoTime());
+    }
+
+    // The model is stepped over the portfolio's held symbols in alphabetical order
+    public RiskEngine(PriceModel priceModel, int paths, int steps, double confidence, long seed) {
+        this(priceModel, null, paths, steps, confidence, seed);
+    }
+
+    // Asset i of the model is assetSymbols.get(i), whether or not it is held. Use this for models
+    // over a fixed set of assets (e.g. correlated), so each holding meets its own row of the model.
+    public RiskEngine(PriceModel priceModel, List<String> assetSymbols, int paths, int steps,
+                      double confidence, long seed) {
+        if (paths <= 0 || steps <= 0 || confidence <= 0 || confidence >= 1) {
+            throw new IllegalArgumentException("Paths and steps must be positive, confidence in (0, 1)");
+        }
+        if (assetSymbols != null) {
+            if (!priceModel.supports(assetSymbols.size())) {
+                throw new IllegalArgumentException(priceModel + " cannot step " + assetSymbols.size() + " assets");
+            }
+            SymbolRegistry registry = SymbolRegistry.getDefault();
+            this.assetSymbols = new String[assetSymbols.size()];
+            for (int i = 0; i < this.assetSymbols.length; i++) {
+                this.assetSymbols[i] = registry.canonical(assetSymbols.get(i));
+            }
+        }
+        this.priceModel = priceModel;
+        this.paths = paths;
+        this.steps = steps;
+        this.confidence = confidence;
+        this.workers = Runtime.getRuntime().availableProcessors();
+        this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "risk-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.seedSource = new SplittableRandom(seed);
+    }
+
+    // Simulate future values of the portfolio's holdings and report VaR / expected shortfall.
+    // Throws IllegalStateException when the model cannot cover the holdings.
+    public synchronized RiskReport calculateRisk(Portfolio portfolio, Market market) {
+        long start = System.nanoTime();
+
+        Map<String, Integer> holdings = new TreeMap<>(portfolio.getHoldings());
+        double[] startPrices;
+        int[] quantities;
+        int count = 0;
+        double positionValue = 0;
+        if (assetSymbols == null) {
+            startPrices = new double[holdings.size()];
+            quantities = new int[holdings.size()];
+            for (Map.Entry<String, Integer> entry : holdings.entrySet()) {
+                Stock stock = market.getStock(entry.getKey());
+                if (stock != null) {
+                    startPrices[count] = stock.getPrice();
+                    quantities[count] = entry.getValue();
+                    positionValue += startPrices[count] * quantities[count];
+                    count++;
+                }
+            }
+            if (count > 0 && !priceModel.supports(count)) {
+                throw new IllegalStateException(priceModel + " cannot step the " + count + " held stocks");
+            }
+        } else {
+            count = assetSymbols.length;
+            startPrices = new double[count];
+            quantities = new int[count];
+            int covered = 0;
+            for (int i = 0; i < count; i++) {
+                Stock stock = market.getStock(assetSymbols[i]);
+                Integer quantity = holdings.get(assetSymbols[i]);
+                startPrices[i] = stock != null ? stock.getPrice() : 0.0;
+                if (quantity != null) {
+                    quantities[i] = quantity;
+                    positionValue += startPrices[i] * quantity;
+                    covered++;
+                }
+            }
+            if (covered < holdings.size()) {
+                holdings.keySet().removeAll(Arrays.asList(assetSymbols));
+                throw new IllegalStateException("Risk model does not cover held " + String.join(", ", holdings.keySet()));
+            }
+            if (covered == 0) {
+                count = 0;
+            }
+        }
+
+        if (count == 0) {
+            return new RiskReport(confidence, paths, steps, 0, 0, 0, System.nanoTime() - start);
+        }
+
+        // Each worker gets a contiguous slice of paths and its own RNG stream
+        double[] losses = new double[paths];
+        int chunk = (paths + workers - 1) / workers;
+        List<Future<?>> futures = new ArrayList<>();
+        for (int from = 0; from < paths; from += chunk) {
+            int sliceFrom = from;
+            int sliceTo = Math.min(paths, from + chunk);
+            int assets = count;
+            double startValue = positionValue;
+            SplittableRandom random = seedSource.split();
+            futures.add(executor.submit(() -> simulate(startPrices, quantities, assets, startValue,
+                losses, sliceFrom, sliceTo, random)));
+        }
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Risk simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Risk simulation failed", e.getCause());
+        }
+
+        Arrays.sort(losses);
+        int varIndex = Math.min(paths - 1, (int) Math.ceil(confidence * paths) - 1);
+        double valueAtRisk = losses[varIndex];
+        double tailSum = 0;
+        for (int i = varIndex; i < paths; i++) {
+            tailSum += losses[i];
+        }
+        double expectedShortfall = tailSum / (paths - varIndex);
+
+        return new RiskReport(confidence, paths, steps, positionValue,
+            valueAtRisk, expectedShortfall, System.nanoTime() - start);
+    }
+
+    private void simulate(double[] startPrices, int[] quantities, int count, double startValue,
+                          double[] losses, int from, int to, RandomGenerator random) {
+        double[] prices = new double[count]; // reused for every path in this slice
+        for (int path = from; path < to; path++) {
+            System.arraycopy(startPrices, 0, prices, 0, count);
+            for (int step = 0; step < steps; step++) {
+                priceModel.step(prices, count, random);
+            }
+
+            double value = 0;
+            for (int i = 0; i < count; i++) {
+                value += prices[i] * quantities[i];
+            }
+            losses[path] = startValue - value;
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+} 
@@ -0,0 +1,60 @@
+public class RiskReport {
+    private double confidence;
+    private int paths;
+    private int steps;
+    private double positionValue;
+    private double valueAtRisk;
+    private double expectedShortfall;
+    private long elapsedNanos;
+
+    public RiskReport(double confidence, int paths, int steps, double positionValue,
+                      double valueAtRisk, double expectedShortfall, long elapsedNanos) {
+        this.confidence = confidence;
+        this.paths = paths;
+        this.steps = steps;
+        this.positionValue = positionValue;
+        this.valueAtRisk = valueAtRisk;
+        this.expectedShortfall = expectedShortfall;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // Getters
+    public double getConfidence() {
+        return confidence;
+    }
+
+    public int getPaths() {
+        return paths;
+    }
+
+    public int getSteps() {
+        return steps;
+    }
+
+    public double getPositionValue() {
+        return positionValue;
+    }
+
+    public double getValueAtRisk() {
+        return valueAtRisk;
+    }
+
+    public double getExpectedShortfall() {
+        return expectedShortfall;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append("--- Risk Report ---\n");
+        report.append(String.format("Position Value: $%.2f\n", positionValue));
+        report.append(String.format("Value at Risk (%.1f%%): $%.2f\n", confidence * 100, valueAtRisk));
+        report.append(String.format("Expected Shortfall (%.1f%%): $%.2f\n", confidence * 100, expectedShortfall));
+        report.append(String.format("(%d paths x %d steps in %.1f ms)\n", paths, steps, elapsedNanos / 1_000_000.0));
+        return report.toString();
+    }
+} 
@@ -1,18 +1,34 @@
-import java.util.Random;
+import java.util.Arrays;
 
 public class Stock {
-    private String symbol;
+    public static final String UNKNOWN_SECTOR = "Unknown";
+    private static final PriceWatcher[] NO_WATCHERS = new PriceWatcher[0];
+
+    private final String symbol;
+    private final int symbolId;
+    private final String sector;
     private double price;
     private double previousPrice;
     private double changePercent;
-    private Random random;
+    private volatile PriceWatcher[] watchers = NO_WATCHERS; // copy-on-write
+
+    // Told about every price change, on the thread that made it
+    interface PriceWatcher {
+        void priceChanged(Stock stock);
+    }
 
     public Stock(String symbol, double initialPrice) {
-        this.symbol = symbol;
+        this(symbol, initialPrice, UNKNOWN_SECTOR);
+    }
+
+    public Stock(String symbol, double initialPrice, String sector) {
+        SymbolRegistry registry = SymbolRegistry.getDefault();
+        this.symbolId = registry.register(symbol);
+        this.symbol = registry.getSymbol(symbolId);
+        this.sector = sector;
         this.price = initialPrice;
         this.previousPrice = initialPrice;
         this.changePercent = 0.0;
-        this.random = new Random();
     }
 
     // Getters
@@ -20,6 +36,14 @@ public class Stock {
         return symbol;
     }
 
+    public int getSymbolId() {
+        return symbolId;
+    }
+
+    public String getSector() {
+        return sector;
+    }
+
     public double getPrice() {
         return price;
     }
@@ -32,17 +56,33 @@ public class Stock {
         return changePercent;
     }
 
-    // Update stock price with random fluctuation
-    public void updatePrice() {
+    // Move to a price computed elsewhere (e.g. by the market's price model)
+    public void setPrice(double newPrice) {
         previousPrice = price;
-        // Simulate price change between -5% and +5%
-        double changePercent = (random.nextDouble() - 0.5) * 0.1;
-        price = price * (1 + changePercent);
-        this.changePercent = ((price - previousPrice) / previousPrice) * 100;
-        
-        // Ensure price doesn't go below $1
-        if (price < 1.0) {
-            price = 1.0;
+        price = newPrice;
+        changePercent = ((price - previousPrice) / previousPrice) * 100;
+        for (PriceWatcher watcher : watchers) {
+            watcher.priceChanged(this);
+        }
+    }
+
+    synchronized void addWatcher(PriceWatcher watcher) {
+        PriceWatcher[] current = watchers;
+        PriceWatcher[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = watcher;
+        watchers = updated;
+    }
+
+    synchronized void removeWatcher(PriceWatcher watcher) {
+        PriceWatcher[] current = watchers;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == watcher) {
+                PriceWatcher[] updated = new PriceWatcher[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, updated.length - i);
+                watchers = updated.length == 0 ? NO_WATCHERS : updated;
+                return;
+            }
         }
     }
 
@@ -0,0 +1,182 @@
+
+public final class SymbolRegistry {
+    private static final SymbolRegistry DEFAULT = new SymbolRegistry();
+    private static final int INITIAL_CAPACITY = 64;
+
+    // Open-addressed table of ids keyed by the case-insensitive symbol. Lookups read without locking:
+    // an id is only trusted once it is below size, which is published after its symbol is stored.
+    private volatile Table table;
+    private volatile int size;
+
+    private static final class Table {
+        private final int[] slots; // id + 1, or 0 when empty
+        private final String[] symbols; // canonical upper-case symbol by id
+        private final int mask;
+
+        Table(int capacity) {
+            this.slots = new int[capacity * 2];
+            this.symbols = new String[capacity];
+            this.mask = slots.length - 1;
+        }
+    }
+
+    public SymbolRegistry() {
+        this.table = new Table(INITIAL_CAPACITY);
+    }
+
+    // Registry shared by Market, Portfolio, Transaction and FileHandler
+    public static SymbolRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    // Id of a symbol ignoring case, or -1 if it was never registered; allocates nothing
+    public int idOf(CharSequence symbol) {
+        return idOf(symbol, 0, symbol.length());
+    }
+
+    // Id of the symbol in text[from, to), surrounding whitespace ignored
+    public int idOf(CharSequence text, int from, int to) {
+        while (from < to && Character.isWhitespace(text.charAt(from))) {
+            from++;
+        }
+        while (to > from && Character.isWhitespace(text.charAt(to - 1))) {
+            to--;
+        }
+        int published = size;
+        int id = find(table, text, from, to);
+        if (id < published) {
+            return id;
+        }
+        // Registered after we read size; take the lock to see it fully
+        synchronized (this) {
+            return find(table, text, from, to);
+        }
+    }
+
+    // Id of a symbol, registering it on first sight
+    public int register(CharSequence symbol) {
+        return register(symbol, 0, symbol.length());
+    }
+
+    public int register(CharSequence text, int from, int to) {
+        int id = idOf(text, from, to);
+        if (id >= 0) {
+            return id;
+        }
+        while (from < to && Character.isWhitespace(text.charAt(from))) {
+            from++;
+        }
+        while (to > from && Character.isWhitespace(text.charAt(to - 1))) {
+            to--;
+        }
+        if (from == to) {
+            throw new IllegalArgumentException("Empty symbol");
+        }
+        return add(text, from, to);
+    }
+
+    private synchronized int add(CharSequence text, int from, int to) {
+        Table current = table;
+        int existing = find(current, text, from, to);
+        if (existing >= 0) {
+            return existing;
+        }
+
+        int id = size;
+        if (id == current.symbols.length) {
+            current = grow(current);
+        }
+        StringBuilder canonical = new StringBuilder(to - from);
+        for (int i = from; i < to; i++) {
+            canonical.append(upper(text.charAt(i)));
+        }
+        String symbol = canonical.toString();
+        current.symbols[id] = symbol;
+        current.slots[emptySlot(current, hash(symbol, 0, symbol.length()))] = id + 1;
+        size = id + 1;
+        return id;
+    }
+
+    private Table grow(Table current) {
+        Table bigger = new Table(current.symbols.length * 2);
+        for (int id = 0; id < size; id++) {
+            String symbol = current.symbols[id];
+            bigger.symbols[id] = symbol;
+            bigger.slots[emptySlot(bigger, hash(symbol, 0, symbol.length()))] = id + 1;
+        }
+        table = bigger;
+        return bigger;
+    }
+
+    private static int emptySlot(Table table, int hash) {
+        int slot = hash & table.mask;
+        while (table.slots[slot] != 0) {
+            slot = (slot + 1) & table.mask;
+        }
+        return slot;
+    }
+
+    private static int find(Table table, CharSequence text, int from, int to) {
+        int slot = hash(text, from, to) & table.mask;
+        while (true) {
+            int entry = table.slots[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            String symbol = table.symbols[entry - 1];
+            if (symbol != null && matches(symbol, text, from, to)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & table.mask;
+        }
+    }
+
+    private static boolean matches(String symbol, CharSequence text, int from, int to) {
+        if (symbol.length() != to - from) {
+            return false;
+        }
+        for (int i = 0; i < symbol.length(); i++) {
+            if (symbol.charAt(i) != upper(text.charAt(from + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(CharSequence text, int from, int to) {
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + upper(text.charAt(i));
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static char upper(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return (char) (c - ('a' - 'A'));
+        }
+        return c < 128 ? c : Character.toUpperCase(c);
+    }
+
+    // Canonical upper-case symbol for an id
+    public String getSymbol(int id) {
+        if (id < 0 || id >= size) {
+            throw new IllegalArgumentException("Unknown symbol id: " + id);
+        }
+        return table.symbols[id];
+    }
+
+    // Shared upper-case instance of a symbol, registering it if needed
+    public String canonical(CharSequence symbol) {
+        return getSymbol(register(symbol));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "SymbolRegistry (" + size + " symbols)";
+    }
+} 
@@ -0,0 +1,39 @@
+public class Tick {
+    private long timestamp; // epoch milliseconds
+    private int symbolId; // SymbolRegistry id
+    private String symbol;
+    private double price;
+
+    // Readers reuse one Tick for every record, so strategies must copy what they keep
+    public Tick() {
+    }
+
+    void set(long timestamp, int symbolId, double price) {
+        this.timestamp = timestamp;
+        this.symbolId = symbolId;
+        this.symbol = SymbolRegistry.getDefault().getSymbol(symbolId);
+        this.price = price;
+    }
+
+    // Getters
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public int getSymbolId() {
+        return symbolId;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d %s $%.2f", timestamp, symbol, price);
+    }
+} 
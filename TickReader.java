@@ -0,0 +1,17 @@
+import java.io.IOException;
+
+public interface TickReader extends AutoCloseable {
+    // Read the next record into tick; returns false at end of file
+    boolean next(Tick tick) throws IOException;
+
+    @Override
+    void close() throws IOException;
+
+    // Open a tick file, choosing the format from its extension (.csv is text, anything else binary)
+    static TickReader open(String path) throws IOException {
+        if (path.toLowerCase().endsWith(".csv")) {
+            return new CsvTickReader(path);
+        }
+        return new BinaryTickReader(path);
+    }
+} 
@@ -0,0 +1,157 @@
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TradingGateway {
+    private static final int BACKLOG = 4096;
+    private static final double STARTING_CASH = 10000.0;
+
+    private Market market;
+    private MarketDataFeed feed; // created on first SUBSCRIBE, once the market is ready
+    private volatile CompletableFuture<?> ready;
+    private int port;
+    private Map<String, User> users; // username -> user, shared by all of that user's sessions
+    private ExecutorService sessionExecutor;
+    private ServerSocket serverSocket;
+    private Thread acceptThread;
+    private AtomicLong activeSessions;
+    private AtomicLong totalSessions;
+    private volatile boolean running;
+
+    // Serves the line protocol on loopback; port 0 picks a free port
+    public TradingGateway(Market market, int port) {
+        this.market = market;
+        this.port = port;
+        this.users = new ConcurrentHashMap<>();
+        this.activeSessions = new AtomicLong();
+        this.totalSessions = new AtomicLong();
+        this.ready = CompletableFuture.completedFuture(null);
+    }
+
+    // Let sessions connect before the market is fully loaded; market requests wait for ready
+    public void setReady(CompletableFuture<?> ready) {
+        this.ready = ready;
+    }
+
+    // Wait for the market to be ready; false if loading failed
+    boolean awaitReady() {
+        try {
+            ready.join();
+            return true;
+        } catch (CompletionException | CancellationException e) {
+            return false;
+        }
+    }
+
+    public void start() throws IOException {
+        serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        sessionExecutor = newSessionExecutor();
+        running = true;
+
+        acceptThread = new Thread(this::acceptLoop, "gateway-accept");
+        acceptThread.start();
+    }
+
+    // One thread per session: virtual threads when the JDK has them (21+), otherwise a cached pool
+    static ExecutorService newSessionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "gateway-session");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                totalSessions.incrementAndGet();
+                activeSessions.incrementAndGet();
+                sessionExecutor.execute(() -> {
+                    try {
+                        new GatewaySession(this, socket).run();
+                    } finally {
+                        activeSessions.decrementAndGet();
+                    }
+                });
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("Error accepting gateway connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Get or create the user behind a LOGIN
+    User login(String username) {
+        return users.computeIfAbsent(username, name -> {
+            User user = new User(name, "password", STARTING_CASH);
+            user.getPortfolio().setEventBus(market.getEventBus());
+            return user;
+        });
+    }
+
+    Market getMarket() {
+        return market;
+    }
+
+    // The feed, or null if market data could not be loaded
+    MarketDataFeed getFeed() {
+        if (!awaitReady()) {
+            return null;
+        }
+        synchronized (this) {
+            if (feed == null) {
+                feed = new MarketDataFeed(market);
+            }
+            return feed;
+        }
+    }
+
+    public int getPort() {
+        return serverSocket != null ? serverSocket.getLocalPort() : port;
+    }
+
+    public long getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    public long getTotalSessions() {
+        return totalSessions.get();
+    }
+
+    public void stop() {
+        running = false;
+        try {
+            if (serverSocket != null) {
+                serverSocket.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Error closing gateway: " + e.getMessage());
+        }
+        synchronized (this) {
+            if (feed != null) {
+                feed.close();
+            }
+        }
+        if (sessionExecutor != null) {
+            sessionExecutor.shutdownNow();
+        }
+    }
+} 
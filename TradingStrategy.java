@@ -0,0 +1,8 @@
+public interface TradingStrategy {
+    // Called after the market has moved to the tick's price
+    void onTick(Tick tick, Market market, Portfolio portfolio);
+
+    // Called once after the last tick
+    default void onFinish(Market market, Portfolio portfolio) {
+    }
+} 
@@ -3,7 +3,8 @@ import java.time.format.DateTimeFormatter;
 
 public class Transaction {
     private String transactionId;
-    private String stockSymbol;
+    private String stockSymbol; // shared registry instance, not a per-trade copy
+    private int symbolId;
     private int quantity;
     private double price;
     private TransactionType type;
@@ -15,8 +16,13 @@ public class Transaction {
     }
 
     public Transaction(String stockSymbol, int quantity, double price, TransactionType type) {
+        this(SymbolRegistry.getDefault().register(stockSymbol), quantity, price, type);
+    }
+
+    public Transaction(int symbolId, int quantity, double price, TransactionType type) {
         this.transactionId = generateTransactionId();
-        this.stockSymbol = stockSymbol;
+        this.symbolId = symbolId;
+        this.stockSymbol = SymbolRegistry.getDefault().getSymbol(symbolId);
         this.quantity = quantity;
         this.price = price;
         this.type = type;
@@ -37,6 +43,10 @@ public class Transaction {
         return stockSymbol;
     }
 
+    public int getSymbolId() {
+        return symbolId;
+    }
+
     public int getQuantity() {
         return quantity;
     }
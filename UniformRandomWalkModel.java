@@ -0,0 +1,29 @@
+import java.util.random.RandomGenerator;
+
+public class UniformRandomWalkModel implements PriceModel {
+    private static final double MIN_PRICE = 1.0;
+    private double maxChange;
+
+    public UniformRandomWalkModel() {
+        this(0.05); // Same +/-5% step the market always used
+    }
+
+    public UniformRandomWalkModel(double maxChange) {
+        this.maxChange = maxChange;
+    }
+
+    @Override
+    public void step(double[] prices, int count, RandomGenerator random) {
+        double range = maxChange * 2;
+        for (int i = 0; i < count; i++) {
+            double changePercent = (random.nextDouble() - 0.5) * range;
+            // Ensure price doesn't go below $1
+            prices[i] = Math.max(MIN_PRICE, prices[i] * (1 + changePercent));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Uniform random walk (+/-%.1f%%)", maxChange * 100);
+    }
+} 
@@ -0,0 +1,30 @@
+#!/bin/sh
+# Build the application jar plus an AppCDS archive for fast startup.
+#
+#   ./build-fast-start.sh          build/stock-trading.jar and build/stock-trading.jsa
+#   ./build-fast-start.sh native   also build/stock-trading with GraalVM native-image
+#
+# Run with the archive (the jar must stay where it was built; CDS checks the class path):
+#   java -XX:SharedArchiveFile=build/stock-trading.jsa -jar "$PWD/build/stock-trading.jar" --fast-start
+set -e
+cd "$(dirname "$0")"
+BUILD="$(pwd)/build"
+
+rm -rf build
+mkdir -p build/classes build/training
+javac -d build/classes *.java
+mkdir -p build/classes/META-INF/native-image/stock-trading
+cp native-image/* build/classes/META-INF/native-image/stock-trading/
+jar --create --file build/stock-trading.jar --main-class Main -C build/classes .
+
+# Training run in a scratch directory (the app saves its data files on exit):
+# create a user, view the market and the portfolio, then exit.
+# Classes loaded by this run are dumped into the archive (JDK 13+).
+(cd build/training && printf 'cds\n1\n\n4\n\n8\n' | \
+    java -XX:ArchiveClassesAtExit="$BUILD/stock-trading.jsa" -jar "$BUILD/stock-trading.jar" --fast-start > /dev/null)
+echo "Built build/stock-trading.jar and build/stock-trading.jsa"
+
+if [ "$1" = "native" ]; then
+    native-image -jar build/stock-trading.jar -o build/stock-trading
+    echo "Built build/stock-trading"
+fi